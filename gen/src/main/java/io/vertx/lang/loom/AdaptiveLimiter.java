@@ -0,0 +1,110 @@
+package io.vertx.lang.loom;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * Limits the number of concurrent virtual threads of a context based on the lag of its event loop.
+ * <p>
+ * A probe is scheduled on the event loop every {@link #PROBE_INTERVAL_MS} and measures how late it runs. The limit follows an AIMD scheme: when the lag
+ * exceeds the target the limit is decreased proportionally to the overshoot (at most halved), otherwise it is increased by one percent of the maximum limit.
+ */
+class AdaptiveLimiter {
+
+  static final long PROBE_INTERVAL_MS = 10;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final long targetLagNanos;
+  private final int minLimit;
+  private final int maxLimit;
+  private final int increase;
+  private volatile int limit;
+  private volatile long lagNanos;
+  private volatile boolean stopped;
+  private ScheduledFuture<?> probe;
+
+  AdaptiveLimiter(long targetLagMillis, int minLimit, int maxLimit) {
+    this.targetLagNanos = TimeUnit.MILLISECONDS.toNanos(targetLagMillis);
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.increase = Math.max(1, maxLimit / 100);
+    this.limit = maxLimit;
+  }
+
+  /**
+   * Start to probe the event loop.
+   */
+  void start(EventLoop eventLoop) {
+    schedule(eventLoop);
+  }
+
+  private void schedule(EventLoop eventLoop) {
+    if (stopped) {
+      return;
+    }
+    long expected = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PROBE_INTERVAL_MS);
+    probe = eventLoop.schedule(() -> {
+      sample(Math.max(0, System.nanoTime() - expected));
+      schedule(eventLoop);
+    }, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+  }
+
+  void stop() {
+    stopped = true;
+    ScheduledFuture<?> current = probe;
+    if (current != null) {
+      current.cancel(false);
+    }
+  }
+
+  /**
+   * Adjust the limit to the measured lag.
+   *
+   * @param lag
+   *          the lag of the event loop in nanoseconds
+   */
+  void sample(long lag) {
+    lagNanos = lag;
+    int current = limit;
+    if (lag > targetLagNanos) {
+      double factor = Math.max(0.5, (double) targetLagNanos / lag);
+      limit = Math.max(minLimit, (int) (current * factor));
+    } else if (current < maxLimit) {
+      limit = Math.min(maxLimit, current + increase);
+    }
+  }
+
+  /**
+   * Admit a new virtual thread.
+   *
+   * @param force
+   *          whether to admit the thread even when the limit has been reached
+   * @return whether the thread was admitted
+   */
+  boolean tryAcquire(boolean force) {
+    while (true) {
+      int current = inFlight.get();
+      if (!force && current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  void release() {
+    inFlight.decrementAndGet();
+  }
+
+  int limit() {
+    return limit;
+  }
+
+  long lagNanos() {
+    return lagNanos;
+  }
+}
@@ -3,113 +3,342 @@ package io.vertx.lang.loom;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
 
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.lang.loom.tracing.AsyncTracer;
 import io.vertx.loom.rxjava3.LoomContextScheduler;
 
 public final class Async {
 
   private static final ThreadLocal<AsyncContext> ASYNC_CONTEXT = new ThreadLocal<>();
   private static final ThreadLocal<Coroutine> AWAIT_CONTEXT = new ThreadLocal<>();
+  private static final ThreadLocal<Context> LOCAL_CONTEXT = new ThreadLocal<>();
+  private static final ThreadLocal<TraceScope> TRACE_SCOPE = new ThreadLocal<>();
 
-  private record AsyncContext(Context vertxContext, ThreadFactory vThreadFactory) {
+  private static volatile AsyncOptions options = new AsyncOptions();
+
+  private record TraceScope(AsyncTracer<Object> tracer, Object span) {
   }
 
   private Async() {
 
   }
 
-  public static <A> Future<A> async(Callable<A> fn) {
-    AsyncContext asyncContext = ASYNC_CONTEXT.get();
+  /**
+   * Apply the options to all virtual threads which are launched afterwards.
+   *
+   * @param options
+   */
+  public static void configure(AsyncOptions options) {
+    Async.options = new AsyncOptions(Objects.requireNonNull(options));
+  }
 
-    if (asyncContext == null) {
-      asyncContext = prepareAsyncContext();
-    }
-    AsyncContext finalAsyncCtx = asyncContext;
+  static AsyncOptions options() {
+    return options;
+  }
 
+  public static <A> Future<A> async(Callable<A> fn) {
     Promise<A> promise = Promise.promise();
 
-    finalAsyncCtx.vThreadFactory.newThread(() -> {
-      try {
-        ASYNC_CONTEXT.set(finalAsyncCtx);
-        AWAIT_CONTEXT.set(new Coroutine(finalAsyncCtx.vertxContext));
-        promise.complete(fn.call());
-        AWAIT_CONTEXT.remove();
-      } catch (Throwable t) {
-        promise.fail(t);
-      }
-    }).start();
+    Thread thread;
+    try {
+      thread = launch(() -> {
+        try {
+          promise.complete(fn.call());
+        } catch (Throwable t) {
+          promise.fail(t);
+        }
+      }, promise.future());
+    } catch (RejectedExecutionException e) {
+      return Future.failedFuture(e);
+    }
+    thread.start();
 
     return promise.future();
   }
-  
+
   public static <A> List<A> await(Observable<A> obs) {
-    Coroutine coroutine = Objects.requireNonNull(AWAIT_CONTEXT.get(), "Must call await from inside an async scope");
-    return coroutine.await(obs);
+    return coroutine().await(obs);
   }
 
   public static <A> A await(Single<A> single) {
-    Coroutine coroutine = Objects.requireNonNull(AWAIT_CONTEXT.get(), "Must call await from inside an async scope");
-    return coroutine.await(single);
+    return coroutine().await(single);
   }
 
   public static <A> A await(Future<A> future) {
-    Coroutine coroutine = Objects.requireNonNull(AWAIT_CONTEXT.get(), "Must call await from inside an async scope");
-    return coroutine.await(future);
+    return coroutine().await(future);
+  }
+
+  /**
+   * Await the outcome of the maybe.
+   *
+   * @return the item or null when the maybe completed empty
+   */
+  public static <A> A await(Maybe<A> maybe) {
+    return coroutine().await(maybe);
+  }
+
+  public static void await(Completable completable) {
+    coroutine().await(completable);
+  }
+
+  /**
+   * Iterate the items of the flowable, see {@link #iterate(Flowable, int)}. Items are requested in batches of {@link Flowable#bufferSize()}.
+   */
+  public static <A> FlowableIterator<A> iterate(Flowable<A> flowable) {
+    return iterate(flowable, Flowable.bufferSize());
+  }
+
+  /**
+   * Subscribe to the flowable and return a blocking iterator over its items. Unlike {@link #await(Observable)} the items are not collected, the virtual
+   * thread parks until the next item arrives and at most {@code batchSize} items are buffered.
+   *
+   * @param flowable
+   * @param batchSize
+   *          the number of items to request at once
+   * @return the iterator, to be closed when it is not consumed to the end
+   */
+  public static <A> FlowableIterator<A> iterate(Flowable<A> flowable, int batchSize) {
+    return new FlowableIterator<>(flowable, batchSize, coroutine());
+  }
+
+  /**
+   * Return the coroutine of the current virtual thread. The coroutine is created on the first await and reused for the remaining life of the thread, so
+   * handlers which never await do not pay for it.
+   */
+  static Coroutine coroutine() {
+    Coroutine coroutine = AWAIT_CONTEXT.get();
+    if (coroutine == null) {
+      AsyncContext asyncContext = ASYNC_CONTEXT.get();
+      if (asyncContext == null || !Thread.currentThread().isVirtual()) {
+        // Fail fast, parking a Vert.x thread would block the event loop
+        throw new IllegalStateException("Must call await from inside an async scope but was called on " + Thread.currentThread().getName());
+      }
+      TraceScope traceScope = TRACE_SCOPE.get();
+      coroutine = traceScope == null
+        ? new Coroutine(asyncContext, null, null)
+        : new Coroutine(asyncContext, traceScope.tracer, traceScope.span);
+      asyncContext.register(coroutine);
+      AWAIT_CONTEXT.set(coroutine);
+    }
+    return coroutine;
   }
 
   public static Thread async(Runnable runnable) {
+    Thread thread = launch(runnable, null);
+    thread.start();
+    return thread;
+  }
+
+  /**
+   * Run the code of a handler on a virtual thread. When the calling thread already is a virtual thread of an async scope of the context which emits the
+   * event, e.g. because the event passed through another {@link LoomHandler}, the code runs inline instead of being dispatched onto a new virtual thread.
+   * Failures of inline code are reported to the Vert.x context like the failures of a handler. An event which is emitted on another context from a virtual
+   * thread is dispatched onto a virtual thread of that context, so that it does not block the code which fired it.
+   *
+   * @param runnable
+   * @throws RejectedExecutionException
+   *           when a new virtual thread is needed but the context has been closed or the throttling limit has been reached
+   */
+  public static void dispatch(Runnable runnable) {
     AsyncContext asyncContext = ASYNC_CONTEXT.get();
+    if (asyncContext != null && Thread.currentThread().isVirtual()) {
+      Context eventContext = Vertx.currentContext();
+      if (eventContext != null && ((ContextInternal) eventContext).unwrap() != asyncContext.vertxContext()) {
+        launch(runnable, null, AsyncContext.of(eventContext), false, eventContext).start();
+        return;
+      }
+      try {
+        runnable.run();
+      } catch (Throwable t) {
+        ((ContextInternal) currentVertxContext()).reportException(t);
+      }
+    } else {
+      async(runnable);
+    }
+  }
 
-    if (asyncContext == null) {
-      asyncContext = prepareAsyncContext();
+  /**
+   * Run the code which invokes the given user handler, see {@link #dispatch(Runnable)}. A {@link LoomHandler} dispatches its events by itself, so the code
+   * runs on the calling thread, e.g. to keep the order of the events when the handler serializes them.
+   *
+   * @param handler
+   *          the handler of the user which is invoked by the code
+   * @param runnable
+   */
+  public static void dispatch(Handler<?> handler, Runnable runnable) {
+    if (handler instanceof LoomHandler) {
+      runnable.run();
+    } else {
+      dispatch(runnable);
     }
+  }
+
+  /**
+   * Create the virtual thread which runs the given code on the Vert.x context of the calling thread.
+   *
+   * @param body
+   *          the code to run
+   * @param result
+   *          the future which is completed by the code, used to report failures which are handled by the code itself
+   * @return the new, not yet started, virtual thread
+   * @throws RejectedExecutionException
+   *           when the context has been closed or the throttling limit has been reached
+   */
+  private static Thread launch(Runnable body, Future<?> result) {
+    AsyncContext asyncContext = ASYNC_CONTEXT.get();
+    if (asyncContext != null) {
+      return launch(body, result, asyncContext, true, LOCAL_CONTEXT.get());
+    }
+    return launch(body, result, prepareAsyncContext(), false, null);
+  }
 
+  /**
+   * Create the virtual thread which runs the given code on the async context.
+   *
+   * @param body
+   * @param result
+   * @param asyncContext
+   *          the async context of the new thread
+   * @param nested
+   *          whether the thread is launched by another virtual thread of the async context
+   * @param localContext
+   *          the context which is propagated into the thread, null for the context of the calling thread
+   * @return the new, not yet started, virtual thread
+   */
+  private static Thread launch(Runnable body, Future<?> result, AsyncContext asyncContext, boolean nested, Context localContext) {
     AsyncContext finalAsyncCtx = asyncContext;
 
-    Thread thread = finalAsyncCtx.vThreadFactory.newThread(() -> {
+    // Propagate the context of the launching code. On a Vert.x thread this may be a duplicated context which carries the tracing data of the request.
+    if (localContext == null) {
+      localContext = Objects.requireNonNullElse(Vertx.currentContext(), finalAsyncCtx.vertxContext());
+    }
+    Context finalLocalCtx = localContext;
+
+    TraceScope traceScope = null;
+    @SuppressWarnings("unchecked")
+    AsyncTracer<Object> tracer = (AsyncTracer<Object>) options.getTracer();
+    if (tracer != null) {
+      TraceScope parent = TRACE_SCOPE.get();
+      Object span = tracer.launch(localContext, parent != null && parent.tracer == tracer ? parent.span : null);
+      if (span != null) {
+        traceScope = new TraceScope(tracer, span);
+      }
+    }
+    TraceScope finalTraceScope = traceScope;
+
+    Runnable task = () -> {
+      Throwable failure = null;
       try {
         ASYNC_CONTEXT.set(finalAsyncCtx);
-        AWAIT_CONTEXT.set(new Coroutine(finalAsyncCtx.vertxContext));
-        runnable.run();
-        AWAIT_CONTEXT.remove();
+        LOCAL_CONTEXT.set(finalLocalCtx);
+        if (finalTraceScope != null) {
+          TRACE_SCOPE.set(finalTraceScope);
+          finalTraceScope.tracer.start(finalTraceScope.span);
+        }
+        body.run();
       } catch (Throwable t) {
+        failure = t;
         throw t;
+      } finally {
+        if (finalTraceScope != null) {
+          if (failure == null && result != null) {
+            failure = result.cause();
+          }
+          finalTraceScope.tracer.end(finalTraceScope.span, failure);
+        }
+        Coroutine coroutine = AWAIT_CONTEXT.get();
+        if (coroutine != null) {
+          finalAsyncCtx.unregister(coroutine);
+          AWAIT_CONTEXT.remove();
+        }
       }
-    });
-    thread.start();
-    return thread;
+    };
+    try {
+      return finalAsyncCtx.newThread(task, nested);
+    } catch (RuntimeException e) {
+      // The thread was rejected, the span would never be ended otherwise
+      if (finalTraceScope != null) {
+        finalTraceScope.tracer.end(finalTraceScope.span, e);
+      }
+      throw e;
+    }
   }
 
+  /**
+   * Return the Vert.x context of the current code. Within a virtual thread this is the context of the code which launched it, so that context local data
+   * (e.g. tracing data) is propagated into the virtual thread.
+   *
+   * @return the current context
+   */
   public static Context currentVertxContext() {
+    Context localContext = LOCAL_CONTEXT.get();
+    if (localContext != null) {
+      return localContext;
+    }
+    AsyncContext asyncContext = ASYNC_CONTEXT.get();
+    return asyncContext != null ? asyncContext.vertxContext() : Vertx.currentContext();
+  }
+
+  /**
+   * Run the handler periodically on a single long lived virtual thread of the current Vert.x context. Unlike a loom periodic timer, the ticks do not
+   * create a virtual thread each and never overlap.
+   *
+   * @param period
+   *          the period in milliseconds
+   * @param policy
+   *          what to do with ticks which fire while the handler is still running
+   * @param handler
+   *          receives the id of the timer
+   * @return the ticker
+   */
+  public static Ticker ticker(long period, Ticker.OverrunPolicy policy, Handler<Long> handler) {
+    return new Ticker(currentVertxContext(), period, policy, handler);
+  }
+
+  /**
+   * Return the statistics of the virtual threads of the current Vert.x context.
+   *
+   * @return the statistics
+   */
+  public static AsyncStats stats() {
+    AsyncContext asyncContext = ASYNC_CONTEXT.get();
+    if (asyncContext == null) {
+      asyncContext = prepareAsyncContext();
+    }
+    return asyncContext.stats();
+  }
+
+  /**
+   * Return to the owning Vert.x context when work stealing is enabled. Call this before touching state which is confined to the context after plain JDK
+   * blocking calls. Continuations after an await already run on the owning context. Without work stealing this is a no-op.
+   */
+  public static void handBack() {
     AsyncContext asyncContext = ASYNC_CONTEXT.get();
-    return asyncContext.vertxContext;
+    if (asyncContext == null || !asyncContext.isWorkStealing()) {
+      return;
+    }
+    Promise<Void> promise = Promise.promise();
+    asyncContext.vertxContext().runOnContext(v -> promise.complete());
+    await(promise.future());
   }
 
   private static AsyncContext prepareAsyncContext() {
     Context vertxContext = Objects.requireNonNull(Vertx.currentContext(),
       "This thread needs a Vertx Context to use async/await");
-
-    // Executor that executes the partner Virtual Thread on this Vertx Context.
-    // todo; cast Context to ContextInternal, and use one of dispatch/emit/execute?
-    // https://vert-x3.github.io/advanced-vertx-guide/index.html#_firing-events
-    Executor contextThreadExecutor = command -> {
-      vertxContext.runOnContext(v -> command.run());
-    };
-    ThreadFactory vtFactory = Thread.ofVirtual().name("vert.x-virtual-thread-", 0).scheduler(contextThreadExecutor)
-      .factory();
-
-    AsyncContext asyncContext = new AsyncContext(vertxContext, vtFactory);
-    ASYNC_CONTEXT.set(asyncContext);
-    return asyncContext;
+    return AsyncContext.of(vertxContext);
   }
 
   public static Scheduler scheduler() {
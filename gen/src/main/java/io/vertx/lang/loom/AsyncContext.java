@@ -0,0 +1,350 @@
+package io.vertx.lang.loom;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.VertxException;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+
+/**
+ * State which is shared by all virtual threads of a single Vert.x context. The instance is stored in the context data of the (non duplicated) Vert.x context
+ * and registered as close hook, so that the threads are released when the context is closed on undeploy or {@code Vertx.close()}.
+ * <p>
+ * The live virtual threads are tracked in a registry. Closing the context stops admitting new threads and waits up to the configured
+ * {@link AsyncOptions#getDrainTimeout() drain timeout} for the in-flight threads. Afterwards the pending awaits are failed and the remaining threads are
+ * interrupted.
+ * <p>
+ * When throttling is enabled the admission of new threads is controlled by an {@link AdaptiveLimiter} which follows the lag of the event loop. When work
+ * stealing is enabled the virtual threads may run on other event loops while the own one is saturated.
+ * <p>
+ * Continuations are queued and run by the event loop in batches of {@link AsyncOptions#getSchedulerBatchSize()}, which keeps I/O and virtual thread progress
+ * balanced.
+ */
+class AsyncContext implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(AsyncContext.class);
+
+  private static final String KEY = AsyncContext.class.getName();
+
+  // Set while a coroutine unparks its owner, the continuation after an await must run on the owning context
+  private static final ThreadLocal<Boolean> RESUMING = new ThreadLocal<>();
+
+  private final ContextInternal vertxContext;
+  private final ThreadFactory vThreadFactory;
+  private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+  // Coroutines of the live threads, registered once per thread on its first await so that parking does not touch shared state
+  private final Set<Coroutine> coroutines = ConcurrentHashMap.newKeySet();
+  private final AdaptiveLimiter limiter;
+  private final int stealingThreshold;
+  private final int batchSize;
+  private final Queue<Runnable> runQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final Runnable drainTask = this::drain;
+  private volatile boolean closed;
+  private volatile boolean killed;
+  private volatile Drain drain;
+
+  private AsyncContext(ContextInternal vertxContext) {
+    this.vertxContext = vertxContext;
+    this.vThreadFactory = Thread.ofVirtual().name("vert.x-virtual-thread-", 0).scheduler(this::execute).factory();
+    AsyncOptions options = Async.options();
+    if (options.getThrottleTargetLag() > 0) {
+      this.limiter = new AdaptiveLimiter(options.getThrottleTargetLag(), options.getThrottleMinLimit(), options.getThrottleMaxLimit());
+    } else {
+      this.limiter = null;
+    }
+    this.stealingThreshold = options.getWorkStealingThreshold();
+    this.batchSize = options.getSchedulerBatchSize();
+  }
+
+  /**
+   * Return the async context of the given Vert.x context. Duplicated contexts share the async context of the context they were duplicated from.
+   *
+   * @param context
+   * @return the async context
+   */
+  static AsyncContext of(Context context) {
+    ContextInternal root = ((ContextInternal) context).unwrap();
+    AsyncContext asyncContext = (AsyncContext) root.contextData().get(KEY);
+    if (asyncContext == null) {
+      AsyncContext created = new AsyncContext(root);
+      asyncContext = (AsyncContext) root.contextData().putIfAbsent(KEY, created);
+      if (asyncContext == null) {
+        asyncContext = created;
+        root.addCloseHook(created);
+        if (created.limiter != null) {
+          created.limiter.start(root.nettyEventLoop());
+        }
+      }
+    }
+    return asyncContext;
+  }
+
+  /**
+   * Executor that executes the partner Virtual Thread on this Vertx Context. Once the context can no longer run tasks the continuation is handed to the common
+   * pool, so that the virtual thread can still observe the closed context and terminate instead of staying parked forever.
+   */
+  private void execute(Runnable command) {
+    if (stealingThreshold > 0 && RESUMING.get() == null) {
+      EventExecutor target = stealingTarget();
+      if (target != null) {
+        try {
+          target.execute(command);
+          return;
+        } catch (RejectedExecutionException e) {
+          // Fall back to the owning context
+        }
+      }
+    }
+    if (batchSize > 0) {
+      runQueue.offer(command);
+      if (drainScheduled.compareAndSet(false, true)) {
+        scheduleDrain();
+      }
+      return;
+    }
+    try {
+      // Always enqueue. ContextInternal.execute would run the continuation inline when the completing code is already on the event loop, nested in the
+      // callbacks of the completed future.
+      vertxContext.runOnContext(v -> command.run());
+    } catch (RejectedExecutionException e) {
+      ForkJoinPool.commonPool().execute(command);
+    }
+  }
+
+  private void scheduleDrain() {
+    try {
+      vertxContext.nettyEventLoop().execute(drainTask);
+    } catch (RejectedExecutionException e) {
+      ForkJoinPool.commonPool().execute(drainTask);
+    }
+  }
+
+  /**
+   * Run a batch of queued continuations. When continuations remain, the drain is submitted again behind the other tasks of the event loop.
+   */
+  private void drain() {
+    Runnable command;
+    for (int i = 0; i < batchSize && (command = runQueue.poll()) != null; i++) {
+      command.run();
+    }
+    drainScheduled.set(false);
+    if (!runQueue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * @return the least loaded event loop when the own event loop has more pending tasks than the threshold, null otherwise
+   */
+  private EventExecutor stealingTarget() {
+    if (!(vertxContext.nettyEventLoop() instanceof SingleThreadEventExecutor own) || own.pendingTasks() <= stealingThreshold) {
+      return null;
+    }
+    EventExecutor target = null;
+    int min = own.pendingTasks();
+    for (EventExecutor executor : vertxContext.owner().getEventLoopGroup()) {
+      if (executor instanceof SingleThreadEventExecutor candidate) {
+        int pending = candidate.pendingTasks();
+        if (pending < min) {
+          min = pending;
+          target = candidate;
+        }
+      }
+    }
+    return min < stealingThreshold ? target : null;
+  }
+
+  /**
+   * Unpark the owner of a coroutine. With work stealing the continuation is pinned to the owning context.
+   */
+  void unpark(Thread owner) {
+    if (stealingThreshold > 0) {
+      RESUMING.set(Boolean.TRUE);
+      try {
+        LockSupport.unpark(owner);
+      } finally {
+        RESUMING.remove();
+      }
+    } else {
+      LockSupport.unpark(owner);
+    }
+  }
+
+  boolean isWorkStealing() {
+    return stealingThreshold > 0;
+  }
+
+  Context vertxContext() {
+    return vertxContext;
+  }
+
+  /**
+   * Create a new virtual thread and register it as in-flight.
+   *
+   * @param body
+   * @param nested
+   *          whether the thread is launched by another virtual thread of this context. Nested threads belong to already admitted work and are not throttled.
+   * @return the new, not yet started thread
+   * @throws RejectedExecutionException
+   *           when the context has been closed or the throttling limit has been reached
+   */
+  Thread newThread(Runnable body, boolean nested) {
+    if (closed) {
+      throw rejectedException();
+    }
+    if (limiter != null && !limiter.tryAcquire(nested)) {
+      throw new RejectedExecutionException("The limit of " + limiter.limit() + " virtual threads of the Vert.x context " + vertxContext
+        + " has been reached, the event loop lag is " + TimeUnit.NANOSECONDS.toMillis(limiter.lagNanos()) + " ms");
+    }
+    Thread thread = vThreadFactory.newThread(() -> {
+      try {
+        body.run();
+      } finally {
+        terminated(Thread.currentThread());
+      }
+    });
+    threads.add(thread);
+    if (closed) {
+      threads.remove(thread);
+      if (limiter != null) {
+        limiter.release();
+      }
+      throw rejectedException();
+    }
+    return thread;
+  }
+
+  private void terminated(Thread thread) {
+    threads.remove(thread);
+    if (limiter != null) {
+      limiter.release();
+    }
+    Drain current = drain;
+    if (current != null && threads.isEmpty()) {
+      current.complete(false);
+    }
+  }
+
+  AsyncStats stats() {
+    if (limiter == null) {
+      return new AsyncStats(threads.size(), -1, -1, runQueue.size());
+    }
+    return new AsyncStats(threads.size(), limiter.limit(), TimeUnit.NANOSECONDS.toMillis(limiter.lagNanos()), runQueue.size());
+  }
+
+  /**
+   * @return whether the pending awaits of this context are failed because the drain timeout elapsed
+   */
+  boolean isKilled() {
+    return killed;
+  }
+
+  /**
+   * Track the coroutine of a thread, so that its pending await can be failed when the drain timeout elapsed.
+   */
+  void register(Coroutine coroutine) {
+    coroutines.add(coroutine);
+  }
+
+  void unregister(Coroutine coroutine) {
+    coroutines.remove(coroutine);
+  }
+
+  /**
+   * Invoked when the coroutine is about to park in the await which it already published. Fails the await right away if the context has been killed in the
+   * meantime, the kill may not have seen the await yet.
+   */
+  void parked(Coroutine coroutine) {
+    if (killed) {
+      coroutine.fail(closedException());
+    }
+  }
+
+  VertxException closedException() {
+    return new VertxException("The Vert.x context " + vertxContext + " has been closed while awaiting");
+  }
+
+  private RejectedExecutionException rejectedException() {
+    return new RejectedExecutionException("The Vert.x context " + vertxContext + " has been closed");
+  }
+
+  @Override
+  public void close(Promise<Void> completion) {
+    closed = true;
+    if (limiter != null) {
+      limiter.stop();
+    }
+    AsyncOptions options = Async.options();
+    Drain current = new Drain(completion, threads.size(), options.getDrainHandler());
+    drain = current;
+    if (threads.isEmpty()) {
+      current.complete(false);
+    } else {
+      CompletableFuture.delayedExecutor(options.getDrainTimeout(), TimeUnit.MILLISECONDS).execute(() -> current.complete(true));
+    }
+  }
+
+  /**
+   * A single drain of the context, completed either by the last terminating thread or by the drain timeout.
+   */
+  private class Drain {
+
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final Promise<Void> completion;
+    private final int inFlight;
+    private final Handler<DrainStats> handler;
+    private final long start = System.currentTimeMillis();
+
+    Drain(Promise<Void> completion, int inFlight, Handler<DrainStats> handler) {
+      this.completion = completion;
+      this.inFlight = inFlight;
+      this.handler = handler;
+    }
+
+    void complete(boolean timeout) {
+      if (!done.compareAndSet(false, true)) {
+        return;
+      }
+      int interrupted = 0;
+      if (timeout) {
+        killed = true;
+        // Only the coroutines which are parked in an await are failed
+        for (Coroutine coroutine : coroutines) {
+          coroutine.fail(closedException());
+        }
+        for (Thread thread : threads) {
+          thread.interrupt();
+          interrupted++;
+        }
+      }
+      DrainStats stats = new DrainStats(vertxContext.toString(), Math.max(0, inFlight - interrupted), interrupted,
+        System.currentTimeMillis() - start);
+      if (inFlight > 0) {
+        log.info("Drained virtual threads of " + stats.context() + ": " + stats.drained() + " finished, " + stats.interrupted() + " interrupted after "
+          + stats.durationMillis() + " ms");
+      }
+      if (handler != null) {
+        handler.handle(stats);
+      }
+      completion.complete();
+    }
+  }
+}
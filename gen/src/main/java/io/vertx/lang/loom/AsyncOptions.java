@@ -0,0 +1,234 @@
+package io.vertx.lang.loom;
+
+import io.vertx.core.Handler;
+import io.vertx.lang.loom.tracing.AsyncTracer;
+
+/**
+ * Options which control how {@link Async} runs virtual threads. Use {@link Async#configure(AsyncOptions)} to apply them.
+ */
+public class AsyncOptions {
+
+  /**
+   * The default time to wait for in-flight virtual threads when a context is closed = 5000 ms.
+   */
+  public static final long DEFAULT_DRAIN_TIMEOUT = 5000;
+
+  /**
+   * The default target event loop lag for throttling = 0 ms, which disables throttling.
+   */
+  public static final long DEFAULT_THROTTLE_TARGET_LAG = 0;
+
+  /**
+   * The default minimum number of concurrent virtual threads per context when throttling = 16.
+   */
+  public static final int DEFAULT_THROTTLE_MIN_LIMIT = 16;
+
+  /**
+   * The default maximum number of concurrent virtual threads per context when throttling = 100000.
+   */
+  public static final int DEFAULT_THROTTLE_MAX_LIMIT = 100_000;
+
+  /**
+   * The default number of pending tasks of an event loop above which virtual threads are stolen by other event loops = 0, which disables work stealing.
+   */
+  public static final int DEFAULT_WORK_STEALING_THRESHOLD = 0;
+
+  /**
+   * The default maximum number of virtual thread continuations which run per event loop task = 64.
+   */
+  public static final int DEFAULT_SCHEDULER_BATCH_SIZE = 64;
+
+  private AsyncTracer<?> tracer;
+  private long drainTimeout = DEFAULT_DRAIN_TIMEOUT;
+  private Handler<DrainStats> drainHandler;
+  private long throttleTargetLag = DEFAULT_THROTTLE_TARGET_LAG;
+  private int throttleMinLimit = DEFAULT_THROTTLE_MIN_LIMIT;
+  private int throttleMaxLimit = DEFAULT_THROTTLE_MAX_LIMIT;
+  private int workStealingThreshold = DEFAULT_WORK_STEALING_THRESHOLD;
+  private int schedulerBatchSize = DEFAULT_SCHEDULER_BATCH_SIZE;
+
+  public AsyncOptions() {
+  }
+
+  public AsyncOptions(AsyncOptions other) {
+    this.tracer = other.tracer;
+    this.drainTimeout = other.drainTimeout;
+    this.drainHandler = other.drainHandler;
+    this.throttleTargetLag = other.throttleTargetLag;
+    this.throttleMinLimit = other.throttleMinLimit;
+    this.throttleMaxLimit = other.throttleMaxLimit;
+    this.workStealingThreshold = other.workStealingThreshold;
+    this.schedulerBatchSize = other.schedulerBatchSize;
+  }
+
+  /**
+   * @return the tracer which is informed about the lifecycle of virtual threads or {@code null} when tracing is disabled
+   */
+  public AsyncTracer<?> getTracer() {
+    return tracer;
+  }
+
+  /**
+   * Set the tracer which is informed about launches, awaits and the end of virtual threads.
+   *
+   * @param tracer
+   *          the tracer or {@code null} to disable tracing
+   * @return fluent API
+   */
+  public AsyncOptions setTracer(AsyncTracer<?> tracer) {
+    this.tracer = tracer;
+    return this;
+  }
+
+  /**
+   * @return the time in milliseconds to wait for in-flight virtual threads when a context is closed
+   */
+  public long getDrainTimeout() {
+    return drainTimeout;
+  }
+
+  /**
+   * Set the time to wait for in-flight virtual threads when their Vert.x context is closed on undeploy or {@code Vertx.close()}. Threads which are still
+   * running after the timeout get interrupted and their pending awaits fail.
+   *
+   * @param drainTimeout
+   *          the timeout in milliseconds
+   * @return fluent API
+   */
+  public AsyncOptions setDrainTimeout(long drainTimeout) {
+    if (drainTimeout < 0) {
+      throw new IllegalArgumentException("drainTimeout must be >= 0");
+    }
+    this.drainTimeout = drainTimeout;
+    return this;
+  }
+
+  /**
+   * @return the handler which receives the statistics of drained contexts
+   */
+  public Handler<DrainStats> getDrainHandler() {
+    return drainHandler;
+  }
+
+  /**
+   * Set the handler which receives the statistics once the virtual threads of a closed context have been drained.
+   *
+   * @param drainHandler
+   * @return fluent API
+   */
+  public AsyncOptions setDrainHandler(Handler<DrainStats> drainHandler) {
+    this.drainHandler = drainHandler;
+    return this;
+  }
+
+  /**
+   * @return the event loop lag in milliseconds above which the number of concurrent virtual threads is reduced, 0 when throttling is disabled
+   */
+  public long getThrottleTargetLag() {
+    return throttleTargetLag;
+  }
+
+  /**
+   * Enable the adaptive throttling of virtual threads. The lag of the event loop of each context is probed and the number of virtual threads which may run
+   * concurrently on the context is lowered while the lag exceeds the target and raised again once it recovered. Launches beyond the limit fail with a
+   * {@link java.util.concurrent.RejectedExecutionException}, the generated {@code Route#handler} wrappers respond with {@code 503}.
+   *
+   * @param throttleTargetLag
+   *          the target lag in milliseconds or 0 to disable throttling
+   * @return fluent API
+   */
+  public AsyncOptions setThrottleTargetLag(long throttleTargetLag) {
+    if (throttleTargetLag < 0) {
+      throw new IllegalArgumentException("throttleTargetLag must be >= 0");
+    }
+    this.throttleTargetLag = throttleTargetLag;
+    return this;
+  }
+
+  public int getThrottleMinLimit() {
+    return throttleMinLimit;
+  }
+
+  /**
+   * Set the lower bound of the concurrent virtual threads per context when throttling.
+   *
+   * @param throttleMinLimit
+   * @return fluent API
+   */
+  public AsyncOptions setThrottleMinLimit(int throttleMinLimit) {
+    if (throttleMinLimit < 1) {
+      throw new IllegalArgumentException("throttleMinLimit must be > 0");
+    }
+    this.throttleMinLimit = throttleMinLimit;
+    return this;
+  }
+
+  public int getThrottleMaxLimit() {
+    return throttleMaxLimit;
+  }
+
+  /**
+   * Set the upper bound of the concurrent virtual threads per context when throttling. This is also the initial limit.
+   *
+   * @param throttleMaxLimit
+   * @return fluent API
+   */
+  public AsyncOptions setThrottleMaxLimit(int throttleMaxLimit) {
+    if (throttleMaxLimit < 1) {
+      throw new IllegalArgumentException("throttleMaxLimit must be > 0");
+    }
+    this.throttleMaxLimit = throttleMaxLimit;
+    return this;
+  }
+
+  /**
+   * @return the number of pending tasks of an event loop above which virtual threads may run on another event loop, 0 when work stealing is disabled
+   */
+  public int getWorkStealingThreshold() {
+    return workStealingThreshold;
+  }
+
+  /**
+   * Enable work stealing. While the event loop of a context has more pending tasks than the threshold, the start of a virtual thread and continuations
+   * after plain JDK blocking calls (sleep, locks, I/O) are handed to the least loaded event loop instead. Continuations after {@code Async.await} always
+   * run on the owning context and {@code Async.handBack()} returns to it explicitly.
+   * <p>
+   * A stolen virtual thread runs concurrently to the handlers of its context. Only enable this when the code between two awaits does not touch state which
+   * is confined to the context.
+   *
+   * @param workStealingThreshold
+   *          the number of pending tasks or 0 to disable work stealing
+   * @return fluent API
+   */
+  public AsyncOptions setWorkStealingThreshold(int workStealingThreshold) {
+    if (workStealingThreshold < 0) {
+      throw new IllegalArgumentException("workStealingThreshold must be >= 0");
+    }
+    this.workStealingThreshold = workStealingThreshold;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of continuations which run per event loop task, 0 when every continuation is submitted to the event loop on its own
+   */
+  public int getSchedulerBatchSize() {
+    return schedulerBatchSize;
+  }
+
+  /**
+   * Set the maximum number of virtual thread continuations which run per event loop task. The continuations of a context are queued and drained in
+   * batches. Once a batch is done the remaining continuations are submitted again behind the pending I/O and tasks of the event loop, so that a burst of
+   * resumed virtual threads can not starve reads and accepts.
+   *
+   * @param schedulerBatchSize
+   *          the batch size or 0 to submit every continuation to the event loop on its own
+   * @return fluent API
+   */
+  public AsyncOptions setSchedulerBatchSize(int schedulerBatchSize) {
+    if (schedulerBatchSize < 0) {
+      throw new IllegalArgumentException("schedulerBatchSize must be >= 0");
+    }
+    this.schedulerBatchSize = schedulerBatchSize;
+    return this;
+  }
+}
@@ -0,0 +1,16 @@
+package io.vertx.lang.loom;
+
+/**
+ * Snapshot of the virtual threads of a Vert.x context.
+ *
+ * @param inFlight
+ *          number of live virtual threads
+ * @param limit
+ *          current limit of concurrent virtual threads or -1 when throttling is disabled
+ * @param eventLoopLagMillis
+ *          last measured lag of the event loop or -1 when throttling is disabled
+ * @param queued
+ *          number of continuations which wait to be run by the event loop
+ */
+public record AsyncStats(int inFlight, int limit, long eventLoopLagMillis, int queued) {
+}
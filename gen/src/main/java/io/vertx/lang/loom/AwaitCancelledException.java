@@ -0,0 +1,18 @@
+package io.vertx.lang.loom;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Thrown by an await when its virtual thread got interrupted while it was parked, e.g. because the losing call of a hedge or a cancelled flowable is
+ * stopped. The interrupt status of the thread is set again, so blocking code after the await observes the interrupt as well. The cause is an
+ * {@link InterruptedException}.
+ */
+public class AwaitCancelledException extends CancellationException {
+
+  private static final long serialVersionUID = 1L;
+
+  public AwaitCancelledException() {
+    super("The await has been cancelled because the virtual thread got interrupted");
+    initCause(new InterruptedException());
+  }
+}
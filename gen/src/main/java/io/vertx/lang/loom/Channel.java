@@ -0,0 +1,321 @@
+package io.vertx.lang.loom;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bounded channel between virtual threads. {@link #send(Object)} parks while the channel is full and {@link #receive()} parks while it is empty, so a fast
+ * producer is slowed down to the speed of its consumers:
+ *
+ * <pre>
+ * Channel&lt;Buffer&gt; chunks = new Channel&lt;&gt;(16);
+ * Async.async(() -&gt; {
+ *   for (Buffer chunk : readChunks()) {
+ *     chunks.send(chunk);
+ *   }
+ *   chunks.close();
+ * });
+ * for (Buffer chunk; (chunk = chunks.receive()) != null;) {
+ *   write(chunk);
+ * }
+ * </pre>
+ *
+ * The items are kept in a lock-free multi producer, multi consumer ring buffer, sending and receiving does not allocate. Parking goes through the await
+ * engine of the virtual thread, a parked thread resumes on its own Vert.x context like after any other await. The non blocking {@link #trySend(Object)} and
+ * {@link #tryReceive()} can also be used from the event loop.
+ *
+ * @param <T>
+ */
+public class Channel<T> {
+
+  /**
+   * The item which {@link Channel#select(Channel...)} received and the channel it came from.
+   */
+  public record Selected<T>(Channel<? extends T> channel, T value) {
+  }
+
+  private record Waiter(Coroutine coroutine, long epoch) {
+  }
+
+  private final Object[] buffer;
+  // Sequence of every slot, see Dmitry Vyukov's bounded MPMC queue
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong enqueuePos = new AtomicLong();
+  private final AtomicLong dequeuePos = new AtomicLong();
+  private final Queue<Waiter> receivers = new ConcurrentLinkedQueue<>();
+  private final Queue<Waiter> senders = new ConcurrentLinkedQueue<>();
+  private final BooleanSupplier receivable = () -> canReceive() || isClosed();
+  private final BooleanSupplier sendable = () -> canSend() || isClosed();
+  private volatile boolean closed;
+
+  /**
+   * @param capacity
+   *          the number of items which can be buffered, rounded up to the next power of two
+   */
+  public Channel(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.buffer = new Object[size];
+    this.sequences = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+    this.mask = size - 1;
+  }
+
+  /**
+   * Send the item, parking the virtual thread while the channel is full.
+   *
+   * @param item
+   * @throws IllegalStateException
+   *           when the channel has been closed, also when it was closed while the thread was parked
+   */
+  public void send(T item) {
+    while (!trySend(item)) {
+      await(senders, sendable);
+    }
+  }
+
+  /**
+   * Send the item when there is capacity left.
+   *
+   * @param item
+   * @return whether the item has been sent
+   * @throws IllegalStateException
+   *           when the channel has been closed
+   */
+  public boolean trySend(T item) {
+    Objects.requireNonNull(item, "item must not be null");
+    if (closed) {
+      throw new IllegalStateException("Channel is closed");
+    }
+    if (!offer(item)) {
+      return false;
+    }
+    wake(receivers);
+    if (canSend()) {
+      // Pass the wakeup on, another sender might have been woken for the capacity this item took
+      wake(senders);
+    }
+    return true;
+  }
+
+  /**
+   * Receive the next item, parking the virtual thread while the channel is empty. Items which were sent before the channel has been closed are still
+   * received.
+   *
+   * @return the item or null when the channel has been closed and all items have been received
+   */
+  public T receive() {
+    while (true) {
+      boolean wasClosed = closed;
+      T item = tryReceive();
+      if (item != null) {
+        return item;
+      }
+      if (wasClosed) {
+        return null;
+      }
+      await(receivers, receivable);
+    }
+  }
+
+  /**
+   * Receive the next item when one is available.
+   *
+   * @return the item or null when the channel is empty
+   */
+  public T tryReceive() {
+    T item = poll();
+    if (item != null) {
+      wake(senders);
+      if (canReceive()) {
+        wake(receivers);
+      }
+    }
+    return item;
+  }
+
+  /**
+   * Receive the next item of the first channel which has one, parking the virtual thread while all channels are empty. The channels are polled in the given
+   * order.
+   *
+   * @param channels
+   * @return the item and its channel or null when all channels have been closed and all their items have been received
+   */
+  @SafeVarargs
+  public static <T> Selected<T> select(Channel<? extends T>... channels) {
+    if (channels.length == 0) {
+      throw new IllegalArgumentException("At least one channel is needed");
+    }
+    BooleanSupplier receivable = () -> {
+      for (Channel<? extends T> channel : channels) {
+        if (channel.receivable.getAsBoolean()) {
+          return true;
+        }
+      }
+      return false;
+    };
+    while (true) {
+      boolean open = false;
+      for (Channel<? extends T> channel : channels) {
+        boolean wasClosed = channel.closed;
+        T item = channel.tryReceive();
+        if (item != null) {
+          return new Selected<>(channel, item);
+        }
+        open |= !wasClosed;
+      }
+      if (!open) {
+        return null;
+      }
+
+      Coroutine coroutine = Async.coroutine();
+      long epoch = coroutine.prepareSignal();
+      Waiter waiter = new Waiter(coroutine, epoch);
+      for (Channel<? extends T> channel : channels) {
+        channel.receivers.offer(waiter);
+      }
+      try {
+        coroutine.awaitSignal(epoch, receivable);
+      } finally {
+        for (Channel<? extends T> channel : channels) {
+          if (!channel.receivers.remove(waiter)) {
+            // Woken by this channel, pass the wakeup on in case this thread takes the item of another channel
+            channel.wake(channel.receivers);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Close the channel. Parked senders fail, parked receivers receive the remaining items and then null.
+   */
+  public void close() {
+    closed = true;
+    wakeAll(receivers);
+    wakeAll(senders);
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * @return the number of buffered items
+   */
+  public int size() {
+    long size = enqueuePos.get() - dequeuePos.get();
+    return (int) Math.max(0, Math.min(size, buffer.length));
+  }
+
+  public int capacity() {
+    return buffer.length;
+  }
+
+  /**
+   * Park until the condition holds. The waiter is registered before the condition is checked again, so that a wakeup in between can not be lost.
+   */
+  private void await(Queue<Waiter> waiters, BooleanSupplier condition) {
+    Coroutine coroutine = Async.coroutine();
+    long epoch = coroutine.prepareSignal();
+    Waiter waiter = new Waiter(coroutine, epoch);
+    waiters.offer(waiter);
+    try {
+      coroutine.awaitSignal(epoch, condition);
+    } catch (RuntimeException e) {
+      if (!waiters.remove(waiter)) {
+        // The wakeup was meant for this thread, pass it on before failing
+        wake(waiters);
+      }
+      throw e;
+    }
+    waiters.remove(waiter);
+  }
+
+  /**
+   * Resume the first waiter which still waits.
+   */
+  private void wake(Queue<Waiter> waiters) {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.coroutine.signal(waiter.epoch)) {
+        return;
+      }
+    }
+  }
+
+  private void wakeAll(Queue<Waiter> waiters) {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      waiter.coroutine.signal(waiter.epoch);
+    }
+  }
+
+  private boolean canSend() {
+    long pos = enqueuePos.get();
+    return sequences.get((int) pos & mask) == pos;
+  }
+
+  private boolean canReceive() {
+    long pos = dequeuePos.get();
+    return sequences.get((int) pos & mask) == pos + 1;
+  }
+
+  private boolean offer(T item) {
+    long pos = enqueuePos.get();
+    while (true) {
+      int index = (int) pos & mask;
+      long diff = sequences.get(index) - pos;
+      if (diff == 0) {
+        if (enqueuePos.compareAndSet(pos, pos + 1)) {
+          buffer[index] = item;
+          // Publishes the item to the receiver of the slot
+          sequences.set(index, pos + 1);
+          return true;
+        }
+        pos = enqueuePos.get();
+      } else if (diff < 0) {
+        // Full
+        return false;
+      } else {
+        pos = enqueuePos.get();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T poll() {
+    long pos = dequeuePos.get();
+    while (true) {
+      int index = (int) pos & mask;
+      long diff = sequences.get(index) - (pos + 1);
+      if (diff == 0) {
+        if (dequeuePos.compareAndSet(pos, pos + 1)) {
+          T item = (T) buffer[index];
+          buffer[index] = null;
+          // Hands the slot to the sender of the next round
+          sequences.set(index, pos + buffer.length);
+          return item;
+        }
+        pos = dequeuePos.get();
+      } else if (diff < 0) {
+        // Empty
+        return null;
+      } else {
+        pos = dequeuePos.get();
+      }
+    }
+  }
+}
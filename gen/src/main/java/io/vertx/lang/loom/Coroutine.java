@@ -1,59 +1,78 @@
 package io.vertx.lang.loom;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
 
-import io.vertx.core.Context;
+import io.reactivex.rxjava3.disposables.Disposable;
 import io.vertx.core.Future;
+import io.vertx.lang.loom.tracing.AsyncTracer;
 
 /**
  * await() must be run on a Virtual Thread. Whenever we block, the Virtual Thread will yield execution. So await() blocks until the Future.onComplete handler
  * unblocks us.
+ * <p>
+ * A single instance is bound to the virtual thread that created it and is reused for every await of that thread. Awaiting an already completed future does
+ * not allocate.
+ * <p>
+ * The completing thread unparks the virtual thread directly. The virtual thread is scheduled by the executor of its {@link AsyncContext}, so the code after
+ * the await still resumes on the owning Vert.x context without an additional hop through {@code runOnContext}. Every await is tagged with an epoch so that a
+ * late signal of a previous await can never resume a later one.
  */
 class Coroutine {
 
-  private final ReentrantLock lock = new ReentrantLock();
-  private final Condition cond = lock.newCondition();
-  private final Context vertxContext;
+  private static final VarHandle STATE;
 
-  Coroutine(Context vertxContext) {
-    this.vertxContext = vertxContext;
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(Coroutine.class, "state", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
   }
 
-  public <A> A await(Future<A> future) {
-    lock.lock();
-    try {
+  // The lower two bits of the state hold the phase of the current await, the remaining bits its epoch
+  private static final long WAITING = 0;
+  private static final long CLAIMED = 1;
+  private static final long READY = 2;
+  private static final long PHASE_MASK = 3;
 
-      future.onComplete(ar -> {
-        // Future.onComplete can execute immediately,
-        // which would cause deadlock if we don't run it asynchronously.
-        vertxContext.runOnContext(voidd -> {
-          lock.lock();
-          try {
-            cond.signal();
-          } finally {
-            lock.unlock();
-          }
-        });
-      });
+  private final AsyncContext asyncContext;
+  private final Thread owner;
+  private final AsyncTracer<Object> tracer;
+  private final Object span;
 
-      cond.await();
+  // Await state, reused for every await of the owner thread
+  private volatile long state = READY;
+  private Object value;
+  private RuntimeException failure;
 
-      if (future.succeeded()) {
-        return future.result();
-      } else {
-        throw new RuntimeException(future.cause());
-      }
+  Coroutine(AsyncContext asyncContext, AsyncTracer<Object> tracer, Object span) {
+    this.asyncContext = asyncContext;
+    this.owner = Thread.currentThread();
+    this.tracer = tracer;
+    this.span = span;
+  }
 
-    } catch (InterruptedException e) {
-      e.printStackTrace();
-      throw new RuntimeException(e);
-    } finally {
-      lock.unlock();
+  public <A> A await(Future<A> future) {
+    if (!future.isComplete()) {
+      long epoch = begin();
+      // Future.onComplete can execute immediately, the state makes sure that the signal is not lost in that case.
+      future.onComplete(ar -> resume(epoch, null, null));
+      park();
+      RuntimeException err = take();
+      if (err != null) {
+        throw err;
+      }
     }
 
+    if (future.succeeded()) {
+      return future.result();
+    } else {
+      throw new RuntimeException(future.cause());
+    }
   }
 
   public <A> List<A> await(io.reactivex.rxjava3.core.Observable<A> obs) {
@@ -64,69 +83,204 @@ class Coroutine {
     return await(obs.toList());
   }
 
+  @SuppressWarnings("unchecked")
   public <A> A await(io.reactivex.Single<A> single) {
-    lock.lock();
-    try {
-      AtomicReference<A> ref = new AtomicReference<>();
-      single.subscribe(res -> {
-        // Future.onComplete can execute immediately,
-        // which would cause deadlock if we don't run it asynchronously.
-        vertxContext.runOnContext(voidd -> {
-          lock.lock();
-          try {
-            ref.set(res);
-            cond.signal();
-          } finally {
-            lock.unlock();
-          }
-        });
+    long epoch = begin();
+    io.reactivex.disposables.Disposable subscription = single.subscribe(res -> {
+      resume(epoch, res, null);
+    }, err -> {
+      resume(epoch, null, new RuntimeException(err));
+    });
+    parkAndTake(subscription::dispose);
+    return (A) value();
+  }
+
+  @SuppressWarnings("unchecked")
+  public <A> A await(io.reactivex.rxjava3.core.Single<A> single) {
+    long epoch = begin();
+    Disposable subscription = single.subscribe(res -> {
+      resume(epoch, res, null);
+    }, err -> {
+      resume(epoch, null, new RuntimeException(err));
+    });
+    parkAndTake(subscription::dispose);
+    return (A) value();
+  }
 
-      }, err -> {
-        throw new RuntimeException(err);
-      });
+  @SuppressWarnings("unchecked")
+  public <A> A await(io.reactivex.rxjava3.core.Maybe<A> maybe) {
+    long epoch = begin();
+    Disposable subscription = maybe.subscribe(res -> {
+      resume(epoch, res, null);
+    }, err -> {
+      resume(epoch, null, new RuntimeException(err));
+    }, () -> {
+      resume(epoch, null, null);
+    });
+    parkAndTake(subscription::dispose);
+    return (A) value();
+  }
 
-      cond.await();
+  public void await(io.reactivex.rxjava3.core.Completable completable) {
+    long epoch = begin();
+    Disposable subscription = completable.subscribe(() -> {
+      resume(epoch, null, null);
+    }, err -> {
+      resume(epoch, null, new RuntimeException(err));
+    });
+    parkAndTake(subscription::dispose);
+  }
 
-      return ref.get();
+  /**
+   * Start an await which is resumed by {@link #signal(long)}. The epoch has to be published to the signalling threads before
+   * {@link #awaitSignal(long, BooleanSupplier)} is called.
+   *
+   * @return the epoch of the await
+   */
+  long prepareSignal() {
+    return begin();
+  }
 
-    } catch (InterruptedException e) {
-      e.printStackTrace();
-      throw new RuntimeException(e);
-    } finally {
-      lock.unlock();
+  /**
+   * Park until the await of the epoch has been signalled. The condition is checked once more after the epoch has been published, so that a signal which was
+   * sent before can not be lost.
+   *
+   * @param epoch
+   *          the epoch returned by {@link #prepareSignal()}
+   * @param condition
+   */
+  void awaitSignal(long epoch, BooleanSupplier condition) {
+    if (condition.getAsBoolean()) {
+      resume(epoch, null, null);
+    }
+    park();
+    RuntimeException err = take();
+    if (err != null) {
+      throw err;
     }
   }
 
-  public <A> A await(io.reactivex.rxjava3.core.Single<A> single) {
-    lock.lock();
+  /**
+   * Resume the await of the given epoch. Signals for an await which already finished are ignored, so that they can not resume a later await.
+   *
+   * @param epoch
+   * @return whether the await was resumed by this signal
+   */
+  boolean signal(long epoch) {
+    return resume(epoch, null, null);
+  }
+
+  /**
+   * Park until the current await has been resumed and throw its failure. The subscription is disposed when the await fails, e.g. because the context has
+   * been closed, or the thread gets interrupted.
+   */
+  private void parkAndTake(Runnable dispose) {
+    RuntimeException err;
     try {
-      AtomicReference<A> ref = new AtomicReference<>();
-      single.subscribe(res -> {
-        // Future.onComplete can execute immediately,
-        // which would cause deadlock if we don't run it asynchronously.
-        vertxContext.runOnContext(voidd -> {
-          lock.lock();
-          try {
-            ref.set(res);
-            cond.signal();
-          } finally {
-            lock.unlock();
-          }
-        });
+      park();
+      err = take();
+    } catch (RuntimeException e) {
+      dispose.run();
+      throw e;
+    }
+    if (err != null) {
+      dispose.run();
+      value = null;
+      throw err;
+    }
+  }
 
-      }, err -> {
-        throw new RuntimeException(err);
-      });
+  /**
+   * Fail the await which is currently parked, e.g. because the Vert.x context has been closed.
+   *
+   * @param cause
+   */
+  void fail(RuntimeException cause) {
+    long current = state;
+    if ((current & PHASE_MASK) == WAITING) {
+      resume(current >>> 2, null, cause);
+    }
+  }
 
-      cond.await();
+  /**
+   * Start a new await.
+   *
+   * @return the epoch of the await
+   */
+  private long begin() {
+    if (asyncContext.isKilled()) {
+      throw asyncContext.closedException();
+    }
+    long epoch = (state >>> 2) + 1;
+    state = epoch << 2 | WAITING;
+    return epoch;
+  }
 
-      return ref.get();
+  /**
+   * Store the outcome and unpark the owner thread, unless the await of the given epoch has already been resumed.
+   */
+  private boolean resume(long epoch, Object result, RuntimeException cause) {
+    if (STATE.compareAndSet(this, epoch << 2 | WAITING, epoch << 2 | CLAIMED)) {
+      value = result;
+      failure = cause;
+      state = epoch << 2 | READY;
+      asyncContext.unpark(owner);
+      return true;
+    }
+    return false;
+  }
 
-    } catch (InterruptedException e) {
-      e.printStackTrace();
-      throw new RuntimeException(e);
+  /**
+   * Finish the current await without an outcome, so that a late resume is ignored.
+   *
+   * @return false when the await has already been resumed, its outcome is then delivered as usual
+   */
+  private boolean cancel() {
+    long current = state;
+    return (current & PHASE_MASK) == WAITING && STATE.compareAndSet(this, current, (current & ~PHASE_MASK) | READY);
+  }
+
+  private RuntimeException take() {
+    RuntimeException cause = failure;
+    failure = null;
+    return cause;
+  }
+
+  private Object value() {
+    Object result = value;
+    value = null;
+    return result;
+  }
+
+  /**
+   * Park the owner thread until the current await has been resumed. Spurious wakeups are ignored.
+   *
+   * @throws AwaitCancelledException
+   *           when the thread got interrupted before the await was resumed. The interrupt status is set again.
+   */
+  private void park() {
+    if (tracer != null) {
+      tracer.park(span);
+    }
+    asyncContext.parked(this);
+    boolean interrupted = false;
+    try {
+      while ((state & PHASE_MASK) != READY) {
+        LockSupport.park(this);
+        if (Thread.interrupted()) {
+          interrupted = true;
+          if (cancel()) {
+            throw new AwaitCancelledException();
+          }
+        }
+      }
     } finally {
-      lock.unlock();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      if (tracer != null) {
+        tracer.resume(span);
+      }
     }
   }
 }
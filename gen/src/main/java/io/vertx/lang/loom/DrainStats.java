@@ -0,0 +1,16 @@
+package io.vertx.lang.loom;
+
+/**
+ * Outcome of draining the virtual threads of a Vert.x context when it got closed.
+ *
+ * @param context
+ *          the description of the closed Vert.x context
+ * @param drained
+ *          number of virtual threads which finished within the drain timeout
+ * @param interrupted
+ *          number of virtual threads which were still running after the drain timeout and got interrupted
+ * @param durationMillis
+ *          time it took to drain the context
+ */
+public record DrainStats(String context, int drained, int interrupted, long durationMillis) {
+}
@@ -0,0 +1,146 @@
+package io.vertx.lang.loom;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.reactivestreams.Subscription;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+
+/**
+ * Blocking iterator over a {@link Flowable} which parks the virtual thread while no item is available. Items are requested in batches, so at most one batch
+ * is buffered regardless of the speed of the producer. A new batch is requested once three quarters of the previous one have been consumed.
+ * <p>
+ * The iterator has to be consumed by the virtual thread which created it. Closing the iterator cancels the upstream.
+ *
+ * @param <A>
+ */
+public class FlowableIterator<A> implements Iterator<A>, AutoCloseable {
+
+  private final Queue<A> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+  private final Coroutine coroutine;
+  private final int batchSize;
+  private final int replenish;
+  private int consumed;
+  private volatile boolean done;
+  private volatile Throwable error;
+  // Epoch of the await of the consumer, 0 while it does not wait for items
+  private volatile long waiting;
+  private final BooleanSupplier ready = () -> !queue.isEmpty() || done;
+
+  FlowableIterator(Flowable<A> flowable, int batchSize, Coroutine coroutine) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be > 0");
+    }
+    this.coroutine = coroutine;
+    this.batchSize = batchSize;
+    this.replenish = batchSize - (batchSize >> 2);
+    flowable.subscribe(new FlowableSubscriber<A>() {
+
+      @Override
+      public void onSubscribe(Subscription s) {
+        if (upstream.compareAndSet(null, s)) {
+          s.request(FlowableIterator.this.batchSize);
+        } else {
+          // Already closed
+          s.cancel();
+        }
+      }
+
+      @Override
+      public void onNext(A item) {
+        queue.offer(item);
+        signal();
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        error = t;
+        done = true;
+        signal();
+      }
+
+      @Override
+      public void onComplete() {
+        done = true;
+        signal();
+      }
+    });
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!ready.getAsBoolean()) {
+      long epoch = coroutine.prepareSignal();
+      waiting = epoch;
+      try {
+        coroutine.awaitSignal(epoch, ready);
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      } finally {
+        waiting = 0;
+      }
+    }
+    if (!queue.isEmpty()) {
+      return true;
+    }
+    Throwable err = error;
+    if (err != null) {
+      throw new RuntimeException(err);
+    }
+    return false;
+  }
+
+  @Override
+  public A next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    A item = queue.poll();
+    if (++consumed == replenish) {
+      consumed = 0;
+      Subscription s = upstream.get();
+      if (s != null) {
+        s.request(replenish);
+      }
+    }
+    return item;
+  }
+
+  private void signal() {
+    long epoch = waiting;
+    if (epoch != 0) {
+      coroutine.signal(epoch);
+    }
+  }
+
+  /**
+   * Cancel the upstream. Items which have already been received can still be consumed.
+   */
+  @Override
+  public void close() {
+    Subscription s = upstream.getAndSet(CANCELLED);
+    if (s != null && s != CANCELLED) {
+      s.cancel();
+    }
+    done = true;
+  }
+
+  private static final Subscription CANCELLED = new Subscription() {
+
+    @Override
+    public void request(long n) {
+    }
+
+    @Override
+    public void cancel() {
+    }
+  };
+}
@@ -33,6 +33,7 @@ import io.vertx.codegen.type.ClassKind;
 import io.vertx.codegen.type.ClassTypeInfo;
 import io.vertx.codegen.type.ParameterizedTypeInfo;
 import io.vertx.codegen.type.TypeInfo;
+import io.vertx.codegen.type.TypeReflectionFactory;
 import io.vertx.codegen.type.TypeVariableInfo;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
@@ -98,6 +99,49 @@ class LoomGenerator extends AbstractBaseVertxGenerator {
         }
       }
     }
+
+    if (method.getReturnType().getKind() == FUTURE) {
+      genAwaitMethod(model, method, genBody, writer);
+    }
+  }
+
+  /**
+   * Generate the blocking variant {@code fooAwait(...)} of a method {@code Future<T> foo(...)}. The variant parks the calling virtual thread until the future
+   * of the delegate completes and returns its result. It invokes the delegate directly and thus does not allocate the converting future of the wrapped
+   * method.
+   *
+   * @param model
+   * @param method
+   *          the method which returns a future
+   * @param genBody
+   * @param writer
+   */
+  protected void genAwaitMethod(ClassModel model, MethodInfo method, boolean genBody, PrintWriter writer) {
+    TypeInfo resultType = ((ParameterizedTypeInfo) method.getReturnType()).getArg(0);
+    boolean isVoid = Void.class.getName().equals(resultType.getName());
+    MethodInfo awaitMethod = method.copy()
+      .setName(method.getName() + "Await")
+      .setReturnType(isVoid ? TypeReflectionFactory.create(void.class) : resultType);
+    boolean exists = Stream.concat(model.getMethods().stream(), model.getAnyJavaTypeMethods().stream())
+      .anyMatch(m -> compareMethods(m, awaitMethod));
+    if (exists) {
+      return;
+    }
+    startMethodTemplate("public", model.getType(), awaitMethod, "", writer);
+    if (genBody) {
+      String await = "io.vertx.lang.loom.Async.await(" + genInvokeDelegate(model, method) + ")";
+      writer.println(" {");
+      if (isVoid) {
+        writer.println("    " + await + ";");
+      } else {
+        writer.println("    return " + genConvReturn(model, resultType, method, await) + ";");
+      }
+      writer.println("  }");
+      writer.println();
+    } else {
+      writer.println(";");
+      writer.println();
+    }
   }
 
   @Override
@@ -121,6 +165,15 @@ class LoomGenerator extends AbstractBaseVertxGenerator {
     return super.isSameType(type, method);
   }
 
+  /**
+   * Only the request handlers of a route shed a throttled request with 503. Calling {@code fail} from a failure or error handler would re-enter the failure
+   * routing.
+   */
+  private static boolean isRouteHandler(ClassModel model, MethodInfo method, TypeInfo eventType) {
+    return Route.class.getName().equals(model.getFqn()) && "handler".equals(method.getName())
+      && eventType.getKind() == API && RoutingContext.class.getName().equals(eventType.getName());
+  }
+
   @Override
   protected String genConvParam(ClassModel model, TypeInfo type, MethodInfo method, String expr) {
     ClassKind kind = type.getKind();
@@ -148,9 +201,9 @@ class LoomGenerator extends AbstractBaseVertxGenerator {
           TypeInfo resultType = ((ParameterizedTypeInfo) eventType).getArg(0);
           String resultName = genTypeName(resultType);
           if (applyLoom) {
-            return "new Handler<AsyncResult<" + resultName + ">>() {\n"
+            return "new io.vertx.lang.loom.LoomHandler<AsyncResult<" + resultName + ">>() {\n"
               + "      public void handle(AsyncResult<" + resultName + "> ar) {\n"
-              + "        io.vertx.lang.loom.Async.async(() -> {\n"
+              + "        io.vertx.lang.loom.Async.dispatch(" + expr + ", () -> {\n"
               + "          if (ar.succeeded()) {\n"
               + "            " + expr + ".handle(io.vertx.core.Future.succeededFuture(" + genConvReturn(model, resultType, method, "ar.result()") + "));\n"
               + "          } else {\n"
@@ -172,10 +225,23 @@ class LoomGenerator extends AbstractBaseVertxGenerator {
           }
         } else {
           String eventName = genTypeName(eventType);
-          if (applyLoom) {
-            return "new Handler<" + eventName + ">() {\n"
+          if (applyLoom && isRouteHandler(model, method, eventType)) {
+            // Shed the request with 503 when the virtual threads of the context are throttled
+            return "new io.vertx.lang.loom.LoomHandler<" + eventName + ">() {\n"
+              + "      public void handle(" + eventName + " event) {\n"
+              + "        try {\n"
+              + "          io.vertx.lang.loom.Async.dispatch(" + expr + ", () -> {\n"
+              + "            " + expr + ".handle(" + genConvReturn(model, eventType, method, "event") + ");\n"
+              + "          });\n"
+              + "        } catch (java.util.concurrent.RejectedExecutionException e) {\n"
+              + "          event.fail(503, e);\n"
+              + "        }\n"
+              + "      }\n"
+              + "    }";
+          } else if (applyLoom) {
+            return "new io.vertx.lang.loom.LoomHandler<" + eventName + ">() {\n"
               + "      public void handle(" + eventName + " event) {\n"
-              + "        io.vertx.lang.loom.Async.async(() -> {\n"
+              + "        io.vertx.lang.loom.Async.dispatch(" + expr + ", () -> {\n"
               + "          " + expr + ".handle(" + genConvReturn(model, eventType, method, "event") + ");\n"
               + "        });\n"
               + "      }\n"
@@ -0,0 +1,16 @@
+package io.vertx.lang.loom;
+
+import io.vertx.core.Handler;
+
+/**
+ * Marker of the handlers which are generated for the loom API. These handlers dispatch the event onto a virtual thread by themselves, via
+ * {@link Async#dispatch(Runnable)}. When such a handler is invoked on a virtual thread it runs inline, so an event which passes several loom APIs is not
+ * dispatched onto a new virtual thread at each hop.
+ * <p>
+ * A LoomHandler which is passed to a loom API is invoked on the calling thread, since it dispatches the event by itself, see
+ * {@link io.vertx.lang.loom.keyed.KeyedExecutor#handler(java.util.function.Function, Handler)}.
+ *
+ * @param <E>
+ */
+public interface LoomHandler<E> extends Handler<E> {
+}
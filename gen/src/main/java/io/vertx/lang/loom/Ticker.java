@@ -0,0 +1,203 @@
+package io.vertx.lang.loom;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.ContextInternal;
+
+/**
+ * Periodic job which runs on a single long lived virtual thread, see {@link Async#ticker(long, OverrunPolicy, Handler)}. The ticks are fired by a Vert.x
+ * periodic timer, which is scheduled at a fixed rate and therefore does not drift. The ticker thread parks between the ticks, so a tick neither creates a
+ * virtual thread nor runs concurrently with the previous one. When the handler takes longer than the period, the {@link OverrunPolicy} decides what happens
+ * with the ticks which fired in the meantime.
+ * <p>
+ * The ticker stops with {@link #cancel()}, or when the Vert.x context is closed, e.g. on undeploy. Cancelling the timer id with {@link Vertx#cancelTimer(long)}
+ * stops the ticks as well, the parked thread then ends with the context.
+ */
+public class Ticker {
+
+  public enum OverrunPolicy {
+
+    /**
+     * Ticks which fire while the handler runs are dropped, the handler runs again with the next tick.
+     */
+    SKIP,
+
+    /**
+     * Ticks which fire while the handler runs are merged into a single run right after the handler finished.
+     */
+    COALESCE,
+
+    /**
+     * The handler runs once for every tick, ticks which fire while the handler runs are handled back to back until the ticker caught up.
+     */
+    CATCH_UP
+  }
+
+  private final Context context;
+  private final Vertx vertx;
+  private final long periodNanos;
+  private final OverrunPolicy policy;
+  private final Handler<Long> handler;
+  private final AtomicLong fired = new AtomicLong();
+  private final long id;
+  private final long start;
+  private Coroutine coroutine;
+  // Epoch of the await of the ticker thread, 0 while it runs the handler
+  private volatile long waiting;
+  private volatile boolean cancelled;
+  // Number of the last tick which has been handled or dropped, only accessed by the ticker thread
+  private long handled;
+  private volatile long runs;
+  private volatile long missed;
+  private volatile long lastLateness;
+  private volatile long maxLateness;
+
+  Ticker(Context context, long period, OverrunPolicy policy, Handler<Long> handler) {
+    if (period < 1) {
+      throw new IllegalArgumentException("period must be > 0");
+    }
+    this.context = Objects.requireNonNull(context, "This thread needs a Vertx Context to start a ticker");
+    this.vertx = context.owner();
+    this.periodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+    this.policy = Objects.requireNonNull(policy, "policy must not be null");
+    this.handler = Objects.requireNonNull(handler, "handler must not be null");
+    this.start = System.nanoTime();
+    this.id = vertx.setPeriodic(period, tid -> {
+      fired.incrementAndGet();
+      signal();
+    });
+    try {
+      Async.async(this::loop);
+    } catch (RuntimeException e) {
+      vertx.cancelTimer(id);
+      throw e;
+    }
+  }
+
+  /**
+   * @return the id of the Vert.x timer which fires the ticks
+   */
+  public long id() {
+    return id;
+  }
+
+  /**
+   * Stop the ticker. A run of the handler which is in progress is completed.
+   *
+   * @return whether the ticker was still running
+   */
+  public boolean cancel() {
+    boolean running = !cancelled;
+    cancelled = true;
+    vertx.cancelTimer(id);
+    signal();
+    return running;
+  }
+
+  /**
+   * @return the number of runs of the handler
+   */
+  public long runs() {
+    return runs;
+  }
+
+  /**
+   * @return the number of ticks which have been dropped or merged into another run because of overruns
+   */
+  public long missed() {
+    return missed;
+  }
+
+  /**
+   * @return the delay of the last run behind the time of its tick on the fixed rate schedule, in milliseconds
+   */
+  public long lastLatenessMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(lastLateness);
+  }
+
+  /**
+   * @return the largest delay of a run behind the time of its tick on the fixed rate schedule, in milliseconds
+   */
+  public long maxLatenessMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxLateness);
+  }
+
+  private void loop() {
+    coroutine = Async.coroutine();
+    try {
+      while (!cancelled) {
+        if (fired.get() == handled) {
+          if (!awaitTick()) {
+            return;
+          }
+          continue;
+        }
+        long target = fired.get();
+        if (policy == OverrunPolicy.CATCH_UP) {
+          handled++;
+        } else {
+          missed += target - handled - 1;
+          handled = target;
+        }
+        run(handled);
+        if (policy == OverrunPolicy.SKIP) {
+          long overrun = fired.get();
+          missed += overrun - handled;
+          handled = overrun;
+        }
+      }
+    } finally {
+      vertx.cancelTimer(id);
+    }
+  }
+
+  /**
+   * Park until the next tick fired or the ticker has been cancelled.
+   *
+   * @return false when the context has been closed
+   */
+  private boolean awaitTick() {
+    long epoch;
+    try {
+      epoch = coroutine.prepareSignal();
+    } catch (RuntimeException e) {
+      return false;
+    }
+    waiting = epoch;
+    try {
+      coroutine.awaitSignal(epoch, () -> fired.get() != handled || cancelled);
+      return true;
+    } catch (RuntimeException e) {
+      // The context has been closed or the thread interrupted
+      return false;
+    } finally {
+      waiting = 0;
+    }
+  }
+
+  private void run(long tick) {
+    long lateness = Math.max(0, System.nanoTime() - (start + tick * periodNanos));
+    lastLateness = lateness;
+    if (lateness > maxLateness) {
+      maxLateness = lateness;
+    }
+    runs++;
+    try {
+      handler.handle(id);
+    } catch (Throwable t) {
+      ((ContextInternal) context).reportException(t);
+    }
+  }
+
+  private void signal() {
+    long epoch = waiting;
+    if (epoch != 0) {
+      coroutine.signal(epoch);
+    }
+  }
+}
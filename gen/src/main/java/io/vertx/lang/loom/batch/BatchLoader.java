@@ -0,0 +1,188 @@
+package io.vertx.lang.loom.batch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Collects the keys which the virtual threads of a Vert.x context request during one event loop tick, or a configurable window, and loads them with a
+ * single call of the batch function. Every thread parks in {@link #load(Object)} until the batch completed and resumes with its own value. This turns N+1
+ * query patterns into one round trip without changing the blocking style code:
+ *
+ * <pre>
+ * BatchLoader&lt;Long, User&gt; users = new BatchLoader&lt;&gt;(ids -&gt; Async.await(userRepository.findByIds(ids)));
+ *
+ * router.get("/users/:id").handler(rc -&gt; {
+ *   User user = users.load(Long.valueOf(rc.pathParam("id")));
+ *   rc.json(user);
+ * });
+ * </pre>
+ *
+ * Keys are deduplicated per batch. The pending batch is shared by all duplicated contexts of the same root context, so the loads of separately dispatched
+ * handlers, e.g. of concurrent requests, end up in one batch.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class BatchLoader<K, V> {
+
+  /**
+   * Blocking batch function. It runs on a virtual thread and may await. Keys which are missing in the returned map resolve to null.
+   */
+  @FunctionalInterface
+  public interface BatchFunction<K, V> {
+
+    Map<K, V> load(List<K> keys) throws Exception;
+  }
+
+  private final BatchFunction<K, V> batchFunction;
+  private final int maxBatchSize;
+  private final long window;
+  private final Map<ContextInternal, Batch> pending = new ConcurrentHashMap<>();
+
+  public BatchLoader(BatchFunction<K, V> batchFunction) {
+    this(batchFunction, new BatchLoaderOptions());
+  }
+
+  public BatchLoader(BatchFunction<K, V> batchFunction, BatchLoaderOptions options) {
+    this.batchFunction = Objects.requireNonNull(batchFunction, "batchFunction must not be null");
+    this.maxBatchSize = options.getMaxBatchSize();
+    this.window = options.getWindow();
+  }
+
+  /**
+   * Add the key to the pending batch of the current Vert.x context.
+   *
+   * @param key
+   * @return the future value
+   */
+  public Future<V> get(K key) {
+    Context context = Objects.requireNonNull(Async.currentVertxContext(), "This thread needs a Vertx Context to use the batch loader");
+    ContextInternal root = ((ContextInternal) context).unwrap();
+    while (true) {
+      Batch batch = pending.computeIfAbsent(root, Batch::new);
+      Future<V> future = batch.add(key);
+      if (future != null) {
+        return future;
+      }
+      // The batch has been dispatched concurrently, add the key to the next one
+    }
+  }
+
+  /**
+   * Load the value of the key, parking the virtual thread until the batch which contains the key completed.
+   *
+   * @param key
+   * @return the value or null when the batch function returned none
+   */
+  public V load(K key) {
+    return Async.await(get(key));
+  }
+
+  /**
+   * Load the values of the keys with a single batch, unless the batch size is exceeded.
+   *
+   * @param keys
+   * @return the values in the order of the keys
+   */
+  public List<V> loadMany(List<K> keys) {
+    List<Future<V>> futures = new ArrayList<>(keys.size());
+    for (K key : keys) {
+      futures.add(get(key));
+    }
+    List<V> values = new ArrayList<>(keys.size());
+    for (Future<V> future : futures) {
+      values.add(Async.await(future));
+    }
+    return values;
+  }
+
+  private class Batch {
+
+    private final Context context;
+    // Guards the keys and the dispatched flag, the loads of the duplicated contexts may run on different carriers
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, Promise<V>> keys = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean dispatched;
+
+    Batch(Context context) {
+      this.context = context;
+    }
+
+    /**
+     * @return the future value, or null when the batch has already been dispatched
+     */
+    Future<V> add(K key) {
+      Future<V> future;
+      boolean full;
+      boolean schedule;
+      lock.lock();
+      try {
+        if (dispatched) {
+          return null;
+        }
+        future = keys.computeIfAbsent(key, k -> Promise.promise()).future();
+        full = keys.size() >= maxBatchSize;
+        schedule = !scheduled;
+        scheduled = true;
+      } finally {
+        lock.unlock();
+      }
+      if (full) {
+        dispatch();
+      } else if (schedule) {
+        schedule();
+      }
+      return future;
+    }
+
+    /**
+     * Dispatch at the end of the current tick, i.e. after the continuations which are already queued on the context, or after the window.
+     */
+    void schedule() {
+      if (window > 0) {
+        context.owner().setTimer(window, id -> context.runOnContext(v -> dispatch()));
+      } else {
+        context.runOnContext(v -> dispatch());
+      }
+    }
+
+    void dispatch() {
+      List<K> batchKeys;
+      lock.lock();
+      try {
+        if (dispatched) {
+          return;
+        }
+        dispatched = true;
+        batchKeys = new ArrayList<>(keys.keySet());
+      } finally {
+        lock.unlock();
+      }
+      pending.remove(context, this);
+      Async.async(() -> batchFunction.load(batchKeys)).onComplete(ar -> {
+        context.runOnContext(v -> {
+          for (Map.Entry<K, Promise<V>> entry : keys.entrySet()) {
+            if (ar.succeeded()) {
+              Map<K, V> values = ar.result();
+              entry.getValue().complete(values != null ? values.get(entry.getKey()) : null);
+            } else {
+              entry.getValue().fail(ar.cause());
+            }
+          }
+        });
+      });
+    }
+  }
+}
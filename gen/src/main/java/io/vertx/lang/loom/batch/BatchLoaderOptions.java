@@ -0,0 +1,65 @@
+package io.vertx.lang.loom.batch;
+
+/**
+ * Options of a {@link BatchLoader}.
+ */
+public class BatchLoaderOptions {
+
+  /**
+   * The default maximum number of keys per batch = 100.
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  /**
+   * The default time to collect keys = 0 ms, the batch is dispatched at the end of the current event loop tick.
+   */
+  public static final long DEFAULT_WINDOW = 0;
+
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private long window = DEFAULT_WINDOW;
+
+  public BatchLoaderOptions() {
+  }
+
+  public BatchLoaderOptions(BatchLoaderOptions other) {
+    this.maxBatchSize = other.maxBatchSize;
+    this.window = other.window;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Set the maximum number of keys per batch. A full batch is dispatched right away.
+   *
+   * @param maxBatchSize
+   * @return fluent API
+   */
+  public BatchLoaderOptions setMaxBatchSize(int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be > 0");
+    }
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  public long getWindow() {
+    return window;
+  }
+
+  /**
+   * Set the time in milliseconds during which keys are collected after the first key of a batch was requested.
+   *
+   * @param window
+   *          the window or 0 to dispatch the batch at the end of the current event loop tick
+   * @return fluent API
+   */
+  public BatchLoaderOptions setWindow(long window) {
+    if (window < 0) {
+      throw new IllegalArgumentException("window must be >= 0");
+    }
+    this.window = window;
+    return this;
+  }
+}
@@ -0,0 +1,236 @@
+package io.vertx.lang.loom.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Memoizer for values which are computed on virtual threads. Concurrent requests of the same key share a single in-flight load (single-flight), completed
+ * values are cached with a time to live and a maximum size. Stale values are returned while a background virtual thread refreshes them. Failed loads are not
+ * cached.
+ * <p>
+ * The cache is lock-free, entries are kept in a {@link ConcurrentHashMap} and replaced with compare and set.
+ *
+ * <pre>
+ * AsyncCache&lt;String, List&lt;Long&gt;&gt; userIds = new AsyncCache&lt;&gt;(new AsyncCacheOptions().setTtl(10_000).setRefreshAfter(5_000));
+ * List&lt;Long&gt; ids = userIds.await("active", key -&gt; Async.await(loadIdsFromDb(key)));
+ * </pre>
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class AsyncCache<K, V> {
+
+  /**
+   * Number of entries which are sampled to find the least recently used one on eviction.
+   */
+  private static final int EVICTION_SAMPLES = 8;
+
+  /**
+   * Blocking computation of a value. The loader runs on a virtual thread and may await.
+   */
+  @FunctionalInterface
+  public interface Loader<K, V> {
+
+    V load(K key) throws Exception;
+  }
+
+  private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final long ttlNanos;
+  private final long refreshAfterNanos;
+  private final int maxSize;
+  private final AtomicBoolean evicting = new AtomicBoolean();
+  // Eviction hand, only moved by the thread which set evicting
+  private Iterator<Map.Entry<K, Entry<V>>> hand;
+
+  public AsyncCache() {
+    this(new AsyncCacheOptions());
+  }
+
+  public AsyncCache(AsyncCacheOptions options) {
+    Objects.requireNonNull(options, "options must not be null");
+    this.ttlNanos = options.getTimeUnit().toNanos(options.getTtl());
+    this.refreshAfterNanos = options.getTimeUnit().toNanos(options.getRefreshAfter());
+    this.maxSize = options.getMaxSize();
+  }
+
+  /**
+   * Return the cached value of the key or load it. The load runs on a virtual thread of the current Vert.x context and is shared with all requests of the
+   * key which arrive before it completed.
+   *
+   * @param key
+   * @param loader
+   * @return the future value
+   */
+  public Future<V> get(K key, Loader<K, V> loader) {
+    while (true) {
+      long now = System.nanoTime();
+      Entry<V> entry = entries.get(key);
+      if (entry != null) {
+        if (!entry.future.isComplete()) {
+          return entry.future;
+        }
+        long age = now - entry.loadedAt;
+        if (entry.future.succeeded() && (ttlNanos == 0 || age < ttlNanos)) {
+          entry.lastAccess = now;
+          if (refreshAfterNanos > 0 && age >= refreshAfterNanos) {
+            refresh(key, entry, loader);
+          }
+          return entry.future;
+        }
+        // Expired or failed, load again
+        entries.remove(key, entry);
+        continue;
+      }
+
+      Promise<V> promise = Promise.promise();
+      Entry<V> created = new Entry<>(promise.future(), now);
+      if (entries.putIfAbsent(key, created) != null) {
+        // Lost the race, join the load of the winner
+        continue;
+      }
+      evictIfNeeded();
+      Future<V> loaded;
+      try {
+        loaded = load(key, loader);
+      } catch (RuntimeException e) {
+        // The load never started, do not leave the entry in flight
+        entries.remove(key, created);
+        promise.fail(e);
+        return created.future;
+      }
+      loaded.onComplete(ar -> {
+        if (ar.succeeded()) {
+          created.loadedAt = System.nanoTime();
+        } else {
+          entries.remove(key, created);
+        }
+        promise.handle(ar);
+      });
+      return created.future;
+    }
+  }
+
+  /**
+   * Return the cached value of the key or load it, parking the virtual thread until the value is available.
+   *
+   * @param key
+   * @param loader
+   * @return the value
+   */
+  public V await(K key, Loader<K, V> loader) {
+    return Async.await(get(key, loader));
+  }
+
+  /**
+   * Remove the value of the key. A load which is in flight still completes its waiters, but its value is not cached.
+   *
+   * @param key
+   */
+  public void invalidate(K key) {
+    entries.remove(key);
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /**
+   * @return the number of cached and in-flight values
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private Future<V> load(K key, Loader<K, V> loader) {
+    return Async.async(() -> loader.load(key));
+  }
+
+  /**
+   * Load the value of a stale entry on a background virtual thread. The stale value is served until the new one replaced it.
+   */
+  private void refresh(K key, Entry<V> stale, Loader<K, V> loader) {
+    if (!stale.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    Future<V> refreshed;
+    try {
+      refreshed = load(key, loader);
+    } catch (RuntimeException e) {
+      stale.refreshing.set(false);
+      return;
+    }
+    refreshed.onComplete(ar -> {
+      if (ar.succeeded()) {
+        entries.replace(key, stale, new Entry<>(Future.succeededFuture(ar.result()), System.nanoTime()));
+      } else {
+        // Keep serving the stale value and retry on the next access
+        stale.refreshing.set(false);
+      }
+    });
+  }
+
+  /**
+   * Evict the least recently used of a few sampled entries until the cache fits again. The samples are taken by a hand which sweeps over the whole map and
+   * continues where the previous eviction stopped, so every entry is sampled eventually. Sampling keeps eviction lock-free and independent of the cache size,
+   * only one thread moves the hand at a time and the others leave the eviction to it.
+   */
+  private void evictIfNeeded() {
+    if (entries.size() <= maxSize || !evicting.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      // Entries which have been sampled without finding a victim, give up after a full sweep over loads in flight
+      int misses = 0;
+      while (entries.size() > maxSize && misses < entries.size()) {
+        K victim = null;
+        Entry<V> victimEntry = null;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < EVICTION_SAMPLES; i++) {
+          if (hand == null || !hand.hasNext()) {
+            hand = entries.entrySet().iterator();
+            if (!hand.hasNext()) {
+              break;
+            }
+          }
+          Map.Entry<K, Entry<V>> candidate = hand.next();
+          Entry<V> entry = candidate.getValue();
+          // Loads in flight are not evicted, their waiters rely on the entry
+          if (entry.future.isComplete() && entry.lastAccess < oldest) {
+            oldest = entry.lastAccess;
+            victim = candidate.getKey();
+            victimEntry = entry;
+          }
+        }
+        if (victim == null) {
+          misses += EVICTION_SAMPLES;
+          continue;
+        }
+        // Only evict the sampled entry, a value which has been loaded again in the meantime stays
+        entries.remove(victim, victimEntry);
+      }
+    } finally {
+      evicting.set(false);
+    }
+  }
+
+  private static class Entry<V> {
+
+    private final Future<V> future;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile long loadedAt;
+    private volatile long lastAccess;
+
+    Entry(Future<V> future, long now) {
+      this.future = future;
+      this.loadedAt = now;
+      this.lastAccess = now;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package io.vertx.lang.loom.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options of an {@link AsyncCache}.
+ */
+public class AsyncCacheOptions {
+
+  /**
+   * The default time to live of a cached value = 0, values do not expire.
+   */
+  public static final long DEFAULT_TTL = 0;
+
+  /**
+   * The default age of a cached value after which it is refreshed in the background = 0, values are not refreshed.
+   */
+  public static final long DEFAULT_REFRESH_AFTER = 0;
+
+  /**
+   * The default maximum number of cached values = 10000.
+   */
+  public static final int DEFAULT_MAX_SIZE = 10_000;
+
+  private long ttl = DEFAULT_TTL;
+  private long refreshAfter = DEFAULT_REFRESH_AFTER;
+  private TimeUnit timeUnit = TimeUnit.MILLISECONDS;
+  private int maxSize = DEFAULT_MAX_SIZE;
+
+  public AsyncCacheOptions() {
+  }
+
+  public AsyncCacheOptions(AsyncCacheOptions other) {
+    this.ttl = other.ttl;
+    this.refreshAfter = other.refreshAfter;
+    this.timeUnit = other.timeUnit;
+    this.maxSize = other.maxSize;
+  }
+
+  public long getTtl() {
+    return ttl;
+  }
+
+  /**
+   * Set the time after which a cached value expires. The next access loads the value again and waits for it.
+   *
+   * @param ttl
+   *          the time to live or 0 for values which do not expire
+   * @return fluent API
+   */
+  public AsyncCacheOptions setTtl(long ttl) {
+    if (ttl < 0) {
+      throw new IllegalArgumentException("ttl must be >= 0");
+    }
+    this.ttl = ttl;
+    return this;
+  }
+
+  public long getRefreshAfter() {
+    return refreshAfter;
+  }
+
+  /**
+   * Set the age after which a cached value is stale. A stale value is still returned, while a single background virtual thread loads the new value
+   * (stale-while-revalidate). Should be smaller than the ttl.
+   *
+   * @param refreshAfter
+   *          the age or 0 to disable background refreshes
+   * @return fluent API
+   */
+  public AsyncCacheOptions setRefreshAfter(long refreshAfter) {
+    if (refreshAfter < 0) {
+      throw new IllegalArgumentException("refreshAfter must be >= 0");
+    }
+    this.refreshAfter = refreshAfter;
+    return this;
+  }
+
+  public TimeUnit getTimeUnit() {
+    return timeUnit;
+  }
+
+  /**
+   * Set the unit of the ttl and refresh age, defaults to milliseconds.
+   *
+   * @param timeUnit
+   * @return fluent API
+   */
+  public AsyncCacheOptions setTimeUnit(TimeUnit timeUnit) {
+    this.timeUnit = timeUnit;
+    return this;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Set the maximum number of cached values. Beyond it the least recently used values are evicted, approximated by sampling.
+   *
+   * @param maxSize
+   * @return fluent API
+   */
+  public AsyncCacheOptions setMaxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be > 0");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+}
@@ -0,0 +1,332 @@
+package io.vertx.lang.loom.codegen;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import io.vertx.codegen.Generator;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.lang.loom.LoomGeneratorLoader;
+import io.vertx.lang.rx.AbstractBaseVertxGenerator;
+
+/**
+ * Incremental driver of the loom code generator. The sources of every upstream artifact have to be unpacked into a directory of their own. The
+ * {@code CodeGenProcessor} is run on each artifact in a separate {@code -proc:only} compilation, in parallel, and the result is merged into a single output
+ * directory.
+ * <p>
+ * A SHA-256 hash over the sources of the artifact, the generator classes and the vertx-codegen and vertx-rx-gen jars is stored in the cache directory.
+ * Artifacts whose hash did not change are skipped. When an artifact changed, the files it generated before are removed, so that no stale wrapper remains.
+ * <p>
+ * When a native image directory is given, the GraalVM {@code reflect-config.json} and {@code resource-config.json} of all generated classes are written to
+ * it, so that the wrappers work in a native image without further configuration.
+ * <p>
+ * Usage: {@code IncrementalCodeGen <sources> <output> <cache> [threads] [native-image-dir]}. The classpath of the compilations is the classpath of this
+ * process.
+ */
+public class IncrementalCodeGen {
+
+  private static final String HASHES = "hashes.properties";
+
+  private final Path sources;
+  private final Path output;
+  private final Path cache;
+  private final int threads;
+  private final Path nativeImage;
+  private final String generatorHash;
+
+  public IncrementalCodeGen(Path sources, Path output, Path cache, int threads, Path nativeImage) throws IOException {
+    this.sources = sources;
+    this.output = output;
+    this.cache = cache;
+    this.threads = threads;
+    this.nativeImage = nativeImage;
+    this.generatorHash = generatorHash();
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 3) {
+      System.err.println("Usage: IncrementalCodeGen <sources> <output> <cache> [threads] [native-image-dir]");
+      System.exit(2);
+    }
+    int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+    Path nativeImage = args.length > 4 ? Paths.get(args[4]) : null;
+    IncrementalCodeGen codegen = new IncrementalCodeGen(Paths.get(args[0]), Paths.get(args[1]), Paths.get(args[2]), threads, nativeImage);
+    if (!codegen.run()) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Generate the wrappers of all artifacts which changed since the last run.
+   *
+   * @return whether the generation succeeded for all artifacts
+   */
+  public boolean run() throws Exception {
+    Files.createDirectories(output);
+    Files.createDirectories(cache);
+    Properties hashes = loadHashes();
+    List<Path> artifacts;
+    try (Stream<Path> dirs = Files.list(sources)) {
+      artifacts = dirs.filter(Files::isDirectory).sorted().collect(Collectors.toList());
+    }
+
+    List<Path> changed = new ArrayList<>();
+    Properties current = new Properties();
+    for (Path artifact : artifacts) {
+      String name = artifact.getFileName().toString();
+      String hash = hash(artifact);
+      current.setProperty(name, hash);
+      if (!hash.equals(hashes.getProperty(name)) || !Files.exists(fileList(name))) {
+        changed.add(artifact);
+      }
+    }
+    // Remove the output of artifacts which are no longer part of the build
+    for (String name : hashes.stringPropertyNames()) {
+      if (!current.containsKey(name)) {
+        removeGenerated(name);
+      }
+    }
+    System.out.println("Loom codegen: " + changed.size() + " of " + artifacts.size() + " artifacts changed");
+
+    boolean success = true;
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (Path artifact : changed) {
+        results.add(executor.submit(() -> generate(artifact)));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        if (!results.get(i).get()) {
+          success = false;
+          // Force the regeneration on the next run
+          current.remove(changed.get(i).getFileName().toString());
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+    storeHashes(current);
+    if (nativeImage != null) {
+      writeNativeImageConfig();
+    }
+    return success;
+  }
+
+  /**
+   * Register all generated classes for reflection. The wrappers are instantiated through their {@code TypeArg} and looked up by name by the codegen
+   * runtime.
+   */
+  private void writeNativeImageConfig() throws IOException {
+    List<String> classes = new ArrayList<>();
+    try (Stream<Path> lists = Files.list(cache)) {
+      for (Path list : lists.filter(p -> p.toString().endsWith(".files")).sorted().collect(Collectors.toList())) {
+        for (String relative : Files.readAllLines(list)) {
+          if (relative.endsWith(".java")) {
+            classes.add(relative.substring(0, relative.length() - ".java".length()).replace(File.separatorChar, '.'));
+          }
+        }
+      }
+    }
+    JsonArray reflect = new JsonArray();
+    for (String name : classes.stream().sorted().collect(Collectors.toList())) {
+      reflect.add(new JsonObject()
+        .put("name", name)
+        .put("allDeclaredConstructors", true)
+        .put("allPublicMethods", true)
+        .put("allDeclaredFields", true));
+    }
+    JsonObject resources = new JsonObject()
+      .put("resources", new JsonObject()
+        .put("includes", new JsonArray().add(new JsonObject().put("pattern", "\\QMETA-INF/vertx/vertx-version.txt\\E"))));
+    Files.createDirectories(nativeImage);
+    Files.writeString(nativeImage.resolve("reflect-config.json"), reflect.encodePrettily());
+    Files.writeString(nativeImage.resolve("resource-config.json"), resources.encodePrettily());
+    System.out.println("Loom codegen: registered " + classes.size() + " classes for native image");
+  }
+
+  private boolean generate(Path artifact) throws IOException {
+    String name = artifact.getFileName().toString();
+    long start = System.currentTimeMillis();
+    removeGenerated(name);
+    List<File> files;
+    try (Stream<Path> walk = Files.walk(artifact)) {
+      files = walk.filter(p -> p.toString().endsWith(".java"))
+        .filter(p -> !artifact.relativize(p).startsWith("examples"))
+        .map(Path::toFile)
+        .collect(Collectors.toList());
+    }
+    if (files.isEmpty()) {
+      Files.write(fileList(name), List.of());
+      return true;
+    }
+
+    Path tmp = cache.resolve("tmp").resolve(name);
+    deleteRecursively(tmp);
+    Files.createDirectories(tmp);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    StringWriter log = new StringWriter();
+    boolean success;
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+      Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(files);
+      List<String> options = List.of(
+        "-proc:only",
+        "-processor", "io.vertx.codegen.CodeGenProcessor",
+        "-Acodegen.generators=Loom",
+        "-classpath", System.getProperty("java.class.path"),
+        "-s", tmp.toString(),
+        "-encoding", "UTF-8",
+        "-nowarn");
+      success = compiler.getTask(log, fileManager, null, options, null, units).call();
+    }
+    if (!success) {
+      System.err.println("Loom codegen of " + name + " failed:\n" + log);
+      return false;
+    }
+
+    // Merge into the shared output and remember which files belong to the artifact
+    List<String> generated = new ArrayList<>();
+    try (Stream<Path> walk = Files.walk(tmp)) {
+      for (Path file : walk.filter(Files::isRegularFile).collect(Collectors.toList())) {
+        String relative = tmp.relativize(file).toString();
+        Path target = output.resolve(relative);
+        Files.createDirectories(target.getParent());
+        Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        generated.add(relative);
+      }
+    }
+    Files.write(fileList(name), generated);
+    deleteRecursively(tmp);
+    System.out.println("Loom codegen: generated " + generated.size() + " files for " + name + " in " + (System.currentTimeMillis() - start) + " ms");
+    return true;
+  }
+
+  private void removeGenerated(String name) throws IOException {
+    Path list = fileList(name);
+    if (Files.exists(list)) {
+      for (String relative : Files.readAllLines(list)) {
+        Files.deleteIfExists(output.resolve(relative));
+      }
+      Files.delete(list);
+    }
+  }
+
+  private Path fileList(String name) {
+    return cache.resolve(name + ".files");
+  }
+
+  /**
+   * Hash the relative paths and contents of all sources of the artifact, combined with the hash of the generator.
+   */
+  private String hash(Path artifact) throws IOException {
+    MessageDigest digest = sha256();
+    digest.update(generatorHash.getBytes(StandardCharsets.UTF_8));
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(artifact)) {
+      files = walk.filter(Files::isRegularFile).sorted(Comparator.comparing(Path::toString)).collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      digest.update(artifact.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+      digest.update(Files.readAllBytes(file));
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Hash the classes of the generator together with the vertx-codegen and vertx-rx-gen artifacts it builds on, so that a change of the generator or an
+   * upgrade of either artifact invalidates all artifacts.
+   */
+  private static String generatorHash() throws IOException {
+    MessageDigest digest = sha256();
+    Set<Path> locations = new LinkedHashSet<>();
+    for (Class<?> clazz : List.of(LoomGeneratorLoader.class, Generator.class, AbstractBaseVertxGenerator.class)) {
+      try {
+        locations.add(Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()));
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+    }
+    for (Path location : locations) {
+      digest.update(location.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+      if (Files.isDirectory(location)) {
+        try (Stream<Path> walk = Files.walk(location)) {
+          for (Path file : walk.filter(Files::isRegularFile).sorted(Comparator.comparing(Path::toString)).collect(Collectors.toList())) {
+            digest.update(Files.readAllBytes(file));
+          }
+        }
+      } else {
+        try (InputStream in = Files.newInputStream(location)) {
+          digest.update(in.readAllBytes());
+        }
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private Properties loadHashes() throws IOException {
+    Properties hashes = new Properties();
+    Path file = cache.resolve(HASHES);
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        hashes.load(in);
+      }
+    }
+    return hashes;
+  }
+
+  private void storeHashes(Properties hashes) throws IOException {
+    try (var out = Files.newOutputStream(cache.resolve(HASHES))) {
+      hashes.store(out, "Loom codegen content hashes");
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    if (!Files.exists(dir)) {
+      return;
+    }
+    try (Stream<Path> walk = Files.walk(dir)) {
+      walk.sorted(Comparator.reverseOrder()).forEach(p -> {
+        try {
+          Files.delete(p);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+}
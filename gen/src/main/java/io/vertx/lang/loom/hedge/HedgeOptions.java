@@ -0,0 +1,167 @@
+package io.vertx.lang.loom.hedge;
+
+/**
+ * Options of the {@link Hedger}.
+ */
+public class HedgeOptions {
+
+  /**
+   * Default percentile of the observed latency after which a backup call is started = 95.
+   */
+  public static final double DEFAULT_PERCENTILE = 95;
+
+  /**
+   * Default number of observed latencies of an operation which are needed before it is hedged = 100.
+   */
+  public static final int DEFAULT_MIN_SAMPLES = 100;
+
+  /**
+   * Default minimum delay in milliseconds before a backup call is started = 1.
+   */
+  public static final long DEFAULT_MIN_DELAY = 1;
+
+  /**
+   * Default share of the calls which may be hedged = 0.1.
+   */
+  public static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+  /**
+   * Default number of hedges which may be started in a burst = 10.
+   */
+  public static final int DEFAULT_BUDGET_BURST = 10;
+
+  /**
+   * Default number of observed latencies after which the histogram of an operation decays = 10000.
+   */
+  public static final long DEFAULT_WINDOW = 10_000;
+
+  private double percentile = DEFAULT_PERCENTILE;
+  private int minSamples = DEFAULT_MIN_SAMPLES;
+  private long minDelay = DEFAULT_MIN_DELAY;
+  private double budgetRatio = DEFAULT_BUDGET_RATIO;
+  private int budgetBurst = DEFAULT_BUDGET_BURST;
+  private long window = DEFAULT_WINDOW;
+
+  public HedgeOptions() {
+  }
+
+  public HedgeOptions(HedgeOptions other) {
+    this.percentile = other.percentile;
+    this.minSamples = other.minSamples;
+    this.minDelay = other.minDelay;
+    this.budgetRatio = other.budgetRatio;
+    this.budgetBurst = other.budgetBurst;
+    this.window = other.window;
+  }
+
+  public double getPercentile() {
+    return percentile;
+  }
+
+  /**
+   * Set the percentile of the observed latency of the operation after which a backup call is started.
+   *
+   * @param percentile
+   *          between 0 and 100
+   * @return fluent API
+   */
+  public HedgeOptions setPercentile(double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be > 0 and <= 100");
+    }
+    this.percentile = percentile;
+    return this;
+  }
+
+  public int getMinSamples() {
+    return minSamples;
+  }
+
+  /**
+   * Set the number of observed latencies of an operation which are needed before it is hedged. Calls are not hedged until the percentile is meaningful.
+   *
+   * @param minSamples
+   * @return fluent API
+   */
+  public HedgeOptions setMinSamples(int minSamples) {
+    if (minSamples < 1) {
+      throw new IllegalArgumentException("minSamples must be > 0");
+    }
+    this.minSamples = minSamples;
+    return this;
+  }
+
+  public long getMinDelay() {
+    return minDelay;
+  }
+
+  /**
+   * Set the minimum delay in milliseconds before a backup call is started.
+   *
+   * @param minDelay
+   * @return fluent API
+   */
+  public HedgeOptions setMinDelay(long minDelay) {
+    if (minDelay < 1) {
+      throw new IllegalArgumentException("minDelay must be > 0");
+    }
+    this.minDelay = minDelay;
+    return this;
+  }
+
+  public double getBudgetRatio() {
+    return budgetRatio;
+  }
+
+  /**
+   * Set the share of the calls which may be hedged. Every call adds the ratio to the retry budget and every hedge takes one from it, so hedging can not
+   * multiply the load of a slow backend.
+   *
+   * @param budgetRatio
+   *          between 0 and 1
+   * @return fluent API
+   */
+  public HedgeOptions setBudgetRatio(double budgetRatio) {
+    if (budgetRatio < 0 || budgetRatio > 1) {
+      throw new IllegalArgumentException("budgetRatio must be between 0 and 1");
+    }
+    this.budgetRatio = budgetRatio;
+    return this;
+  }
+
+  public int getBudgetBurst() {
+    return budgetBurst;
+  }
+
+  /**
+   * Set the maximum number of hedges the budget can hold, i.e. the number of hedges which may be started in a burst.
+   *
+   * @param budgetBurst
+   * @return fluent API
+   */
+  public HedgeOptions setBudgetBurst(int budgetBurst) {
+    if (budgetBurst < 1) {
+      throw new IllegalArgumentException("budgetBurst must be > 0");
+    }
+    this.budgetBurst = budgetBurst;
+    return this;
+  }
+
+  public long getWindow() {
+    return window;
+  }
+
+  /**
+   * Set the number of observed latencies after which the histogram of an operation decays, see {@link LatencyHistogram}.
+   *
+   * @param window
+   * @return fluent API
+   */
+  public HedgeOptions setWindow(long window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("window must be > 0");
+    }
+    this.window = window;
+    return this;
+  }
+}
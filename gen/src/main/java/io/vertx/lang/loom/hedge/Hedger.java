@@ -0,0 +1,204 @@
+package io.vertx.lang.loom.hedge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Hedges slow calls to reduce the tail latency. The call runs on a virtual thread, when it did not complete within a percentile of the latency which has
+ * been observed for its operation, the same call is started once more on a second virtual thread. Whichever call completes first wins and the thread of the
+ * other one is interrupted, which cancels its await:
+ *
+ * <pre>
+ * Hedger hedger = new Hedger(new HedgeOptions().setPercentile(95));
+ * router.get("/users/:id").handler(rc -&gt; {
+ *   User user = hedger.await("users.get", () -&gt; Async.await(userClient.get(rc.pathParam("id"))));
+ *   rc.json(user);
+ * });
+ * </pre>
+ *
+ * The latencies of the successful calls are kept per operation in a {@link LatencyHistogram}, so the threshold adapts to the backend. Hedges are limited by
+ * a retry budget which grows with every call, see {@link HedgeOptions#setBudgetRatio(double)}. The call must be idempotent, since it may run twice.
+ */
+public class Hedger {
+
+  // The budget is kept in thousandths of a hedge
+  private static final long TOKEN = 1000;
+
+  private final HedgeOptions options;
+  private final ConcurrentHashMap<String, LatencyHistogram> operations = new ConcurrentHashMap<>();
+  private final AtomicLong budget;
+  private final long budgetMax;
+  private final long deposit;
+  private final LongAdder hedges = new LongAdder();
+
+  public Hedger() {
+    this(new HedgeOptions());
+  }
+
+  public Hedger(HedgeOptions options) {
+    this.options = new HedgeOptions(Objects.requireNonNull(options, "options must not be null"));
+    this.budgetMax = options.getBudgetBurst() * TOKEN;
+    this.deposit = Math.round(options.getBudgetRatio() * TOKEN);
+    this.budget = new AtomicLong(budgetMax);
+  }
+
+  /**
+   * Run the call, hedged when it is slower than the configured percentile of its operation, and park the virtual thread until the first call completed.
+   *
+   * @param operation
+   *          the name of the operation, the latencies are tracked per operation
+   * @param call
+   *          idempotent blocking code, it runs on a virtual thread and may await
+   * @return the result of the call which completed first
+   */
+  public <T> T await(String operation, Callable<T> call) {
+    Objects.requireNonNull(call, "call must not be null");
+    LatencyHistogram histogram = histogram(operation);
+    deposit();
+    Promise<T> result = Promise.promise();
+    AtomicInteger remaining = new AtomicInteger(1);
+    List<Attempt<T>> attempts = new ArrayList<>(2);
+    attempts.add(new Attempt<>(call, result, remaining, histogram).start());
+    try {
+      long delay = hedgeDelay(histogram);
+      if (delay > 0 && !result.future().isComplete()) {
+        Context context = Objects.requireNonNull(Async.currentVertxContext(), "This thread needs a Vertx Context to hedge calls");
+        Vertx vertx = context.owner();
+        Promise<Void> elapsed = Promise.promise();
+        long timer = vertx.setTimer(delay, id -> elapsed.tryComplete());
+        result.future().onComplete(ar -> elapsed.tryComplete());
+        Async.await(elapsed.future());
+        vertx.cancelTimer(timer);
+        if (!result.future().isComplete() && acquire()) {
+          remaining.incrementAndGet();
+          try {
+            attempts.add(new Attempt<>(call, result, remaining, histogram).start());
+            hedges.increment();
+          } catch (RejectedExecutionException e) {
+            // Throttled, keep waiting for the first call. It may have failed in the meantime and left the result to the hedge.
+            if (remaining.decrementAndGet() == 0) {
+              Throwable failure = attempts.get(0).failure;
+              result.tryFail(failure != null ? failure : e);
+            }
+          }
+        }
+      }
+      return Async.await(result.future());
+    } finally {
+      for (Attempt<T> attempt : attempts) {
+        attempt.cancel();
+      }
+    }
+  }
+
+  /**
+   * @param operation
+   * @return the histogram of the observed latencies of the operation in microseconds
+   */
+  public LatencyHistogram histogram(String operation) {
+    Objects.requireNonNull(operation, "operation must not be null");
+    return operations.computeIfAbsent(operation, k -> new LatencyHistogram(options.getWindow()));
+  }
+
+  /**
+   * @return the number of backup calls which have been started
+   */
+  public long hedges() {
+    return hedges.sum();
+  }
+
+  /**
+   * @return the delay in milliseconds after which the call is hedged or 0 when too few latencies have been observed
+   */
+  private long hedgeDelay(LatencyHistogram histogram) {
+    if (histogram.count() < options.getMinSamples()) {
+      return 0;
+    }
+    long micros = histogram.valueAtPercentile(options.getPercentile());
+    return Math.max(options.getMinDelay(), (micros + 999) / 1000);
+  }
+
+  private void deposit() {
+    long current;
+    do {
+      current = budget.get();
+      if (current >= budgetMax) {
+        return;
+      }
+    } while (!budget.compareAndSet(current, Math.min(budgetMax, current + deposit)));
+  }
+
+  private boolean acquire() {
+    long current;
+    do {
+      current = budget.get();
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!budget.compareAndSet(current, current - TOKEN));
+    return true;
+  }
+
+  private static class Attempt<T> implements Runnable {
+
+    private final Callable<T> call;
+    private final Promise<T> result;
+    private final AtomicInteger remaining;
+    private final LatencyHistogram histogram;
+    private Thread thread;
+    private volatile boolean done;
+    private volatile Throwable failure;
+
+    Attempt(Callable<T> call, Promise<T> result, AtomicInteger remaining, LatencyHistogram histogram) {
+      this.call = call;
+      this.result = result;
+      this.remaining = remaining;
+      this.histogram = histogram;
+    }
+
+    Attempt<T> start() {
+      thread = Async.async(this);
+      return this;
+    }
+
+    @Override
+    public void run() {
+      long start = System.nanoTime();
+      try {
+        T value = call.call();
+        done = true;
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        result.tryComplete(value);
+      } catch (Throwable t) {
+        done = true;
+        failure = t;
+        // A failure only wins when no other call is left
+        if (remaining.decrementAndGet() == 0) {
+          result.tryFail(t);
+        }
+      }
+    }
+
+    /**
+     * Interrupt the thread of the call unless it already completed.
+     */
+    void cancel() {
+      if (!done) {
+        thread.interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package io.vertx.lang.loom.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets in the style of an HDR histogram. Every power of two is split into {@value #SUB_BUCKETS} buckets, so a
+ * recorded value is kept with a relative error of at most 1/{@value #SUB_BUCKETS}. The whole range of a long fits into a few hundred counters.
+ * <p>
+ * Once {@code window} values have been recorded all counts are halved, so that the percentiles follow changes of the latency instead of averaging over the
+ * whole lifetime. Concurrent recordings during a decay may be counted before or after it, which is acceptable for the estimation of percentiles.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong total = new AtomicLong();
+  private final long window;
+
+  /**
+   * @param window
+   *          the number of recorded values after which the counts decay
+   */
+  public LatencyHistogram(long window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("window must be > 0");
+    }
+    this.window = window;
+  }
+
+  /**
+   * Record a value, e.g. a latency in microseconds.
+   *
+   * @param value
+   */
+  public void record(long value) {
+    counts.incrementAndGet(index(Math.max(0, value)));
+    if (total.incrementAndGet() >= window) {
+      decay();
+    }
+  }
+
+  /**
+   * @return the number of values which are currently counted
+   */
+  public long count() {
+    return total.get();
+  }
+
+  /**
+   * Return the value at the given percentile. The value is the upper bound of the bucket which holds the percentile.
+   *
+   * @param percentile
+   *          between 0 and 100
+   * @return the value or 0 when no value has been recorded
+   */
+  public long valueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    long[] snapshot = new long[BUCKETS];
+    long sum = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      sum += snapshot[i];
+    }
+    if (sum == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * sum));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return upperBound(i);
+      }
+    }
+    return upperBound(BUCKETS - 1);
+  }
+
+  /**
+   * Halve all counts. Only the thread which brings the total back below the window performs the decay.
+   */
+  private void decay() {
+    long current = total.get();
+    if (current < window || !total.compareAndSet(current, current / 2)) {
+      return;
+    }
+    for (int i = 0; i < BUCKETS; i++) {
+      long count;
+      do {
+        count = counts.get(i);
+      } while (count > 0 && !counts.compareAndSet(i, count, count / 2));
+    }
+  }
+
+  static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+  }
+
+  static long upperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long sub = index % SUB_BUCKETS;
+    long lower = (1L << exponent) | (sub << (exponent - SUB_BUCKET_BITS));
+    long width = 1L << (exponent - SUB_BUCKET_BITS);
+    return lower + width - 1;
+  }
+}
@@ -0,0 +1,190 @@
+package io.vertx.lang.loom.keyed;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.LoomHandler;
+
+/**
+ * Runs tasks with the same key one after another, in the order they were submitted, while tasks of different keys run in parallel on their own virtual
+ * threads. This keeps the events of one entity in order without serializing all events with a lock:
+ *
+ * <pre>
+ * KeyedExecutor&lt;String&gt; orders = new KeyedExecutor&lt;&gt;();
+ * vertx.eventBus().&lt;JsonObject&gt;consumer("orders").handler(orders.handler(msg -&gt; msg.body().getString("orderId"), msg -&gt; {
+ *   Order order = Async.await(repository.load(msg.body().getString("orderId")));
+ *   Async.await(repository.save(order.apply(msg.body())));
+ * }));
+ * </pre>
+ *
+ * Each key has a serial queue which is drained by a single virtual thread, launched on the context of the task which found the queue idle. The queue of a
+ * key is removed as soon as it ran empty. Queues are created, drained and retired with compare and set, no lock is shared between keys.
+ *
+ * @param <K>
+ */
+public class KeyedExecutor<K> {
+
+  private final ConcurrentHashMap<K, SerialQueue> queues = new ConcurrentHashMap<>();
+
+  /**
+   * Run the task after all tasks of the key which have been submitted before.
+   *
+   * @param key
+   * @param task
+   *          blocking code, it runs on a virtual thread and may await
+   * @return the future result of the task
+   */
+  public <T> Future<T> submit(K key, Callable<T> task) {
+    Objects.requireNonNull(key, "key must not be null");
+    Objects.requireNonNull(task, "task must not be null");
+    Task<T> queued = new Task<>(task);
+    while (true) {
+      SerialQueue queue = queues.get(key);
+      if (queue == null) {
+        SerialQueue created = new SerialQueue(key);
+        queue = queues.putIfAbsent(key, created);
+        if (queue == null) {
+          queue = created;
+        }
+      }
+      if (queue.enqueue(queued)) {
+        return queued.promise.future();
+      }
+      // The queue ran empty and has been retired concurrently, help removing it and use a new one
+      queues.remove(key, queue);
+    }
+  }
+
+  /**
+   * Return a handler which runs the given handler for every event with the key of the event, in the order of the events. The returned handler is a
+   * {@link LoomHandler}, so the generated loom APIs invoke it on the calling thread and it dispatches the event by itself, which keeps the order of the
+   * events. Failures are reported to the Vert.x context which delivered the event.
+   *
+   * @param keyFn
+   *          extracts the key of an event
+   * @param handler
+   * @return the keyed handler
+   */
+  public <E> Handler<E> handler(Function<E, K> keyFn, Handler<E> handler) {
+    Objects.requireNonNull(keyFn, "keyFn must not be null");
+    Objects.requireNonNull(handler, "handler must not be null");
+    return new LoomHandler<E>() {
+      @Override
+      public void handle(E event) {
+        Context context = Async.currentVertxContext();
+        submit(keyFn.apply(event), () -> {
+          handler.handle(event);
+          return null;
+        }).onFailure(err -> {
+          if (context != null) {
+            ((ContextInternal) context).reportException(err);
+          }
+        });
+      }
+    };
+  }
+
+  /**
+   * @return the number of keys with queued or running tasks
+   */
+  public int activeKeys() {
+    return queues.size();
+  }
+
+  private static final class Task<T> {
+
+    private final Callable<T> callable;
+    private final Promise<T> promise = Promise.promise();
+
+    Task(Callable<T> callable) {
+      this.callable = callable;
+    }
+
+    void run() {
+      try {
+        promise.complete(callable.call());
+      } catch (Throwable t) {
+        promise.fail(t);
+      }
+    }
+
+    void fail(Throwable cause) {
+      promise.fail(cause);
+    }
+  }
+
+  private final class SerialQueue {
+
+    private static final int RETIRED = -1;
+
+    private final K key;
+    private final Queue<Task<?>> tasks = new ConcurrentLinkedQueue<>();
+    // Number of tasks which have been enqueued and not yet completed, or RETIRED
+    private final AtomicInteger pending = new AtomicInteger();
+
+    SerialQueue(K key) {
+      this.key = key;
+    }
+
+    /**
+     * @return false when the queue has been retired and must not be used anymore
+     */
+    boolean enqueue(Task<?> task) {
+      int current;
+      do {
+        current = pending.get();
+        if (current == RETIRED) {
+          return false;
+        }
+      } while (!pending.compareAndSet(current, current + 1));
+      tasks.offer(task);
+      if (current == 0) {
+        // The queue was idle, this task starts the drain
+        try {
+          Async.async(() -> drain(null));
+        } catch (RuntimeException e) {
+          // The virtual thread was rejected, fail the tasks of the key which were submitted in the meantime
+          drain(e);
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Run, or fail, the tasks until the queue ran empty. Only one drain is active at a time, it is started by the task which incremented the count from 0.
+     */
+    private void drain(Throwable rejected) {
+      while (true) {
+        Task<?> task = tasks.poll();
+        if (task == null) {
+          // The count was incremented but the task is not yet offered
+          Thread.yield();
+          continue;
+        }
+        if (rejected == null) {
+          task.run();
+        } else {
+          task.fail(rejected);
+        }
+        if (pending.decrementAndGet() == 0) {
+          // Retire the idle queue, unless a task was submitted right now which then starts a new drain
+          if (pending.compareAndSet(0, RETIRED)) {
+            queues.remove(key, this);
+          }
+          return;
+        }
+      }
+    }
+  }
+}
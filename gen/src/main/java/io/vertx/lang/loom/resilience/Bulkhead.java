@@ -0,0 +1,95 @@
+package io.vertx.lang.loom.resilience;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Caps the number of concurrent calls to a dependency. Without a cap, every request which arrives while a dependency is slow parks another virtual thread
+ * on it, until memory runs out. Calls beyond the cap fail fast with a {@link RejectedExecutionException} instead of parking, which the loom router handlers
+ * turn into a 503 response:
+ *
+ * <pre>
+ * Bulkhead inventory = new Bulkhead(50);
+ * router.get("/stock/:sku").handler(rc -&gt; {
+ *   JsonObject stock = inventory.await(() -&gt; inventoryClient.get(rc.pathParam("sku")));
+ *   rc.json(stock);
+ * });
+ * </pre>
+ *
+ * The permits are a compare and set counter per Vert.x context, so the cap applies per context and event loops do not contend with each other.
+ */
+public class Bulkhead {
+
+  private final int maxConcurrent;
+  private final ContextShards<AtomicInteger> permits = new ContextShards<>(AtomicInteger::new);
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * @param maxConcurrent
+   *          the maximum number of concurrent calls per Vert.x context
+   */
+  public Bulkhead(int maxConcurrent) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("maxConcurrent must be > 0");
+    }
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  /**
+   * Run the call when a permit is available.
+   *
+   * @param call
+   *          blocking code, it may await
+   * @return the result of the call
+   * @throws RejectedExecutionException
+   *           when the cap has been reached
+   */
+  public <T> T call(Callable<T> call) {
+    AtomicInteger inFlight = permits.current();
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxConcurrent) {
+        rejected.increment();
+        throw new RejectedExecutionException("Bulkhead is full, " + current + " calls are in flight");
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    try {
+      return ContextShards.invoke(call);
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  /**
+   * Send the request when a permit is available and await its response.
+   *
+   * @param request
+   * @return the result of the request
+   * @throws RejectedExecutionException
+   *           when the cap has been reached
+   */
+  public <T> T await(Supplier<Future<T>> request) {
+    return call(() -> Async.await(request.get()));
+  }
+
+  /**
+   * @return the number of calls in flight on the current Vert.x context
+   */
+  public int inFlight() {
+    return permits.current().get();
+  }
+
+  /**
+   * @return the number of rejected calls
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+}
@@ -0,0 +1,207 @@
+package io.vertx.lang.loom.resilience;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Circuit breaker for blocking calls on virtual threads. The breaker counts the failed and the slow calls in a time window and opens when either rate
+ * exceeds its threshold. While it is open, calls fail fast with a {@link RejectedExecutionException} without parking, so the virtual threads do not pile
+ * up on a dependency which is down or overloaded. After the open duration a few trial calls are let through, the breaker closes when they succeeded in
+ * time:
+ *
+ * <pre>
+ * CircuitBreaker payments = new CircuitBreaker(new CircuitBreakerOptions().setSlowCallDuration(500).setSlowCallRateThreshold(50));
+ * Receipt receipt = payments.await(() -&gt; paymentClient.charge(order));
+ * </pre>
+ *
+ * The state is kept per Vert.x context and changed with compare and set, each event loop decides on the calls it observed itself.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final CircuitBreakerOptions options;
+  private final long slowCallNanos;
+  private final long windowNanos;
+  private final long openNanos;
+  private final ContextShards<Shard> shards = new ContextShards<>(Shard::new);
+  private final LongAdder rejected = new LongAdder();
+
+  public CircuitBreaker() {
+    this(new CircuitBreakerOptions());
+  }
+
+  public CircuitBreaker(CircuitBreakerOptions options) {
+    this.options = new CircuitBreakerOptions(Objects.requireNonNull(options, "options must not be null"));
+    this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(options.getSlowCallDuration());
+    this.windowNanos = TimeUnit.MILLISECONDS.toNanos(options.getWindow());
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(options.getOpenDuration());
+  }
+
+  /**
+   * Run the call unless the breaker is open.
+   *
+   * @param call
+   *          blocking code, it may await
+   * @return the result of the call
+   * @throws RejectedExecutionException
+   *           when the breaker is open
+   */
+  public <T> T call(Callable<T> call) {
+    Shard shard = shards.current();
+    Status acquired = shard.acquire();
+    if (acquired == null) {
+      rejected.increment();
+      throw new RejectedExecutionException("Circuit breaker is open");
+    }
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      T result = ContextShards.invoke(call);
+      failed = false;
+      return result;
+    } finally {
+      shard.record(acquired, failed, System.nanoTime() - start >= slowCallNanos);
+    }
+  }
+
+  /**
+   * Send the request unless the breaker is open and await its response.
+   *
+   * @param request
+   * @return the result of the request
+   * @throws RejectedExecutionException
+   *           when the breaker is open
+   */
+  public <T> T await(Supplier<Future<T>> request) {
+    return call(() -> Async.await(request.get()));
+  }
+
+  /**
+   * @return the state of the breaker on the current Vert.x context
+   */
+  public State state() {
+    return shards.current().status.get().state;
+  }
+
+  /**
+   * @return the number of rejected calls
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * Immutable state of a shard. A transition replaces the instance as a whole, so the state is always read together with its open time. The calls record
+   * their outcome against the instance which admitted them, the late outcome of a call which was admitted before a transition does not change the state again.
+   */
+  private static final class Status {
+
+    private final State state;
+    private final long openedAt;
+    // Trial calls of the half open state
+    private final AtomicInteger trialPermits;
+    private final AtomicInteger trialSuccesses = new AtomicInteger();
+
+    Status(State state, long openedAt, int trialPermits) {
+      this.state = state;
+      this.openedAt = openedAt;
+      this.trialPermits = new AtomicInteger(trialPermits);
+    }
+  }
+
+  private final class Shard {
+
+    private final AtomicReference<Status> status = new AtomicReference<>(new Status(State.CLOSED, 0, 0));
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+
+    /**
+     * @return the status in which the call was permitted or null when it is rejected
+     */
+    Status acquire() {
+      Status current = status.get();
+      if (current.state == State.OPEN) {
+        if (System.nanoTime() - current.openedAt < openNanos) {
+          return null;
+        }
+        Status trial = new Status(State.HALF_OPEN, current.openedAt, options.getHalfOpenCalls());
+        // Another call may have changed the state concurrently, continue with its status then
+        current = status.compareAndSet(current, trial) ? trial : status.get();
+      }
+      if (current.state == State.CLOSED) {
+        return current;
+      }
+      if (current.state == State.OPEN) {
+        return null;
+      }
+      int permits;
+      do {
+        permits = current.trialPermits.get();
+        if (permits <= 0) {
+          return null;
+        }
+      } while (!current.trialPermits.compareAndSet(permits, permits - 1));
+      return current;
+    }
+
+    void record(Status acquired, boolean failed, boolean slow) {
+      if (acquired.state == State.HALF_OPEN) {
+        if (failed || slow) {
+          open(acquired);
+        } else if (acquired.trialSuccesses.incrementAndGet() >= options.getHalfOpenCalls()
+          && status.compareAndSet(acquired, new Status(State.CLOSED, 0, 0))) {
+          resetWindow(System.nanoTime());
+        }
+        return;
+      }
+      if (status.get() != acquired) {
+        // Admitted before the breaker opened, the breaker already reacted to the calls of that time
+        return;
+      }
+
+      long now = System.nanoTime();
+      long start = windowStart.get();
+      if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+        resetWindow(now);
+      }
+      long total = calls.incrementAndGet();
+      long failedCalls = failed ? failures.incrementAndGet() : failures.get();
+      long slowTotal = slow ? slowCalls.incrementAndGet() : slowCalls.get();
+      if (total >= options.getMinimumCalls()
+        && (failedCalls * 100 >= options.getFailureRateThreshold() * total || slowTotal * 100 >= options.getSlowCallRateThreshold() * total)) {
+        open(acquired);
+      }
+    }
+
+    /**
+     * Open the breaker unless the status has changed since the call was admitted. Only the transition stamps the open time.
+     */
+    private void open(Status expected) {
+      if (status.get() == expected) {
+        status.compareAndSet(expected, new Status(State.OPEN, System.nanoTime(), 0));
+      }
+    }
+
+    private void resetWindow(long now) {
+      windowStart.set(now);
+      calls.set(0);
+      failures.set(0);
+      slowCalls.set(0);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package io.vertx.lang.loom.resilience;
+
+/**
+ * Options of the {@link CircuitBreaker}.
+ */
+public class CircuitBreakerOptions {
+
+  /**
+   * Default percentage of failed calls at which the breaker opens = 50.
+   */
+  public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+
+  /**
+   * Default percentage of slow calls at which the breaker opens = 100, i.e. only when all calls are slow.
+   */
+  public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 100;
+
+  /**
+   * Default duration in milliseconds from which on a call counts as slow = 1000.
+   */
+  public static final long DEFAULT_SLOW_CALL_DURATION = 1000;
+
+  /**
+   * Default number of calls in the window before the rates are evaluated = 20.
+   */
+  public static final int DEFAULT_MINIMUM_CALLS = 20;
+
+  /**
+   * Default length in milliseconds of the window in which the calls are counted = 10000.
+   */
+  public static final long DEFAULT_WINDOW = 10_000;
+
+  /**
+   * Default time in milliseconds the breaker stays open = 5000.
+   */
+  public static final long DEFAULT_OPEN_DURATION = 5000;
+
+  /**
+   * Default number of trial calls in the half open state = 5.
+   */
+  public static final int DEFAULT_HALF_OPEN_CALLS = 5;
+
+  private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+  private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+  private long slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+  private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+  private long window = DEFAULT_WINDOW;
+  private long openDuration = DEFAULT_OPEN_DURATION;
+  private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+
+  public CircuitBreakerOptions() {
+  }
+
+  public CircuitBreakerOptions(CircuitBreakerOptions other) {
+    this.failureRateThreshold = other.failureRateThreshold;
+    this.slowCallRateThreshold = other.slowCallRateThreshold;
+    this.slowCallDuration = other.slowCallDuration;
+    this.minimumCalls = other.minimumCalls;
+    this.window = other.window;
+    this.openDuration = other.openDuration;
+    this.halfOpenCalls = other.halfOpenCalls;
+  }
+
+  public double getFailureRateThreshold() {
+    return failureRateThreshold;
+  }
+
+  /**
+   * Set the percentage of failed calls in the window at which the breaker opens.
+   *
+   * @param failureRateThreshold
+   *          between 0 and 100
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setFailureRateThreshold(double failureRateThreshold) {
+    checkPercentage("failureRateThreshold", failureRateThreshold);
+    this.failureRateThreshold = failureRateThreshold;
+    return this;
+  }
+
+  public double getSlowCallRateThreshold() {
+    return slowCallRateThreshold;
+  }
+
+  /**
+   * Set the percentage of slow calls in the window at which the breaker opens.
+   *
+   * @param slowCallRateThreshold
+   *          between 0 and 100
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setSlowCallRateThreshold(double slowCallRateThreshold) {
+    checkPercentage("slowCallRateThreshold", slowCallRateThreshold);
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    return this;
+  }
+
+  public long getSlowCallDuration() {
+    return slowCallDuration;
+  }
+
+  /**
+   * Set the duration in milliseconds from which on a call counts as slow, also when it succeeded.
+   *
+   * @param slowCallDuration
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setSlowCallDuration(long slowCallDuration) {
+    if (slowCallDuration < 1) {
+      throw new IllegalArgumentException("slowCallDuration must be > 0");
+    }
+    this.slowCallDuration = slowCallDuration;
+    return this;
+  }
+
+  public int getMinimumCalls() {
+    return minimumCalls;
+  }
+
+  /**
+   * Set the number of calls in the window which are needed before the rates are evaluated.
+   *
+   * @param minimumCalls
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setMinimumCalls(int minimumCalls) {
+    if (minimumCalls < 1) {
+      throw new IllegalArgumentException("minimumCalls must be > 0");
+    }
+    this.minimumCalls = minimumCalls;
+    return this;
+  }
+
+  public long getWindow() {
+    return window;
+  }
+
+  /**
+   * Set the length in milliseconds of the window in which the calls are counted. The counts are reset when the window elapsed.
+   *
+   * @param window
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setWindow(long window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("window must be > 0");
+    }
+    this.window = window;
+    return this;
+  }
+
+  public long getOpenDuration() {
+    return openDuration;
+  }
+
+  /**
+   * Set the time in milliseconds the breaker rejects all calls before it lets trial calls pass.
+   *
+   * @param openDuration
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setOpenDuration(long openDuration) {
+    if (openDuration < 1) {
+      throw new IllegalArgumentException("openDuration must be > 0");
+    }
+    this.openDuration = openDuration;
+    return this;
+  }
+
+  public int getHalfOpenCalls() {
+    return halfOpenCalls;
+  }
+
+  /**
+   * Set the number of trial calls in the half open state. The breaker closes when all of them succeeded in time and opens again on the first failed or slow
+   * one.
+   *
+   * @param halfOpenCalls
+   * @return fluent API
+   */
+  public CircuitBreakerOptions setHalfOpenCalls(int halfOpenCalls) {
+    if (halfOpenCalls < 1) {
+      throw new IllegalArgumentException("halfOpenCalls must be > 0");
+    }
+    this.halfOpenCalls = halfOpenCalls;
+    return this;
+  }
+
+  private static void checkPercentage(String name, double value) {
+    if (value < 0 || value > 100) {
+      throw new IllegalArgumentException(name + " must be between 0 and 100");
+    }
+  }
+}
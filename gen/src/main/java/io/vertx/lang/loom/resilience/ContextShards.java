@@ -0,0 +1,59 @@
+package io.vertx.lang.loom.resilience;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import io.vertx.core.Context;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.lang.loom.Async;
+
+/**
+ * State which is kept per Vert.x context, so that the virtual threads of different event loops do not contend on shared counters. The shard is stored in
+ * the data of the root context, duplicated contexts share it and it is released together with the context. Code without a context uses a shared shard.
+ *
+ * @param <S>
+ */
+final class ContextShards<S> {
+
+  private final Supplier<S> factory;
+  private final S shared;
+
+  ContextShards(Supplier<S> factory) {
+    this.factory = factory;
+    this.shared = factory.get();
+  }
+
+  /**
+   * @return the shard of the current Vert.x context
+   */
+  @SuppressWarnings("unchecked")
+  S current() {
+    Context context = Async.currentVertxContext();
+    if (context == null) {
+      return shared;
+    }
+    ContextInternal root = ((ContextInternal) context).unwrap();
+    S shard = (S) root.contextData().get(this);
+    if (shard == null) {
+      S created = factory.get();
+      shard = (S) root.contextData().putIfAbsent(this, created);
+      if (shard == null) {
+        shard = created;
+      }
+    }
+    return shard;
+  }
+
+  /**
+   * Run the call and rethrow its checked exceptions wrapped, like {@link Async#await(io.vertx.core.Future)} does for failures.
+   */
+  static <T> T invoke(Callable<T> call) {
+    try {
+      return call.call();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
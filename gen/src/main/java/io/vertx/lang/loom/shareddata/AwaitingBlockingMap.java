@@ -0,0 +1,74 @@
+package io.vertx.lang.loom.shareddata;
+
+import java.util.Map;
+
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.lang.loom.Async;
+
+/**
+ * {@link BlockingMap} which awaits the operations of an {@link AsyncMap}. The operations of the local async map return completed futures, which the await
+ * fast path returns without parking. The operations of a cluster wide map park until the cluster manager answered.
+ */
+class AwaitingBlockingMap<K, V> implements BlockingMap<K, V> {
+
+  private final AsyncMap<K, V> delegate;
+
+  AwaitingBlockingMap(AsyncMap<K, V> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public V get(K key) {
+    return Async.await(delegate.get(key));
+  }
+
+  @Override
+  public void put(K key, V value) {
+    Async.await(delegate.put(key, value));
+  }
+
+  @Override
+  public void put(K key, V value, long ttl) {
+    Async.await(delegate.put(key, value, ttl));
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    return Async.await(delegate.putIfAbsent(key, value));
+  }
+
+  @Override
+  public V remove(K key) {
+    return Async.await(delegate.remove(key));
+  }
+
+  @Override
+  public boolean removeIfPresent(K key, V value) {
+    return Async.await(delegate.removeIfPresent(key, value));
+  }
+
+  @Override
+  public V replace(K key, V value) {
+    return Async.await(delegate.replace(key, value));
+  }
+
+  @Override
+  public boolean replaceIfPresent(K key, V oldValue, V newValue) {
+    return Async.await(delegate.replaceIfPresent(key, oldValue, newValue));
+  }
+
+  @Override
+  public void clear() {
+    Async.await(delegate.clear());
+  }
+
+  @Override
+  public int size() {
+    return Async.await(delegate.size());
+  }
+
+  @Override
+  public Map<K, V> entries() {
+    return Async.await(delegate.entries());
+  }
+}
@@ -0,0 +1,51 @@
+package io.vertx.lang.loom.shareddata;
+
+import io.vertx.core.shareddata.Counter;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Blocking variant of the shared data {@link Counter}. Local counters complete immediately and thus never park the virtual thread.
+ */
+public class BlockingCounter {
+
+  private final Counter delegate;
+
+  BlockingCounter(Counter delegate) {
+    this.delegate = delegate;
+  }
+
+  public long get() {
+    return Async.await(delegate.get());
+  }
+
+  public long incrementAndGet() {
+    return Async.await(delegate.incrementAndGet());
+  }
+
+  public long getAndIncrement() {
+    return Async.await(delegate.getAndIncrement());
+  }
+
+  public long decrementAndGet() {
+    return Async.await(delegate.decrementAndGet());
+  }
+
+  public long addAndGet(long value) {
+    return Async.await(delegate.addAndGet(value));
+  }
+
+  public long getAndAdd(long value) {
+    return Async.await(delegate.getAndAdd(value));
+  }
+
+  public boolean compareAndSet(long expected, long value) {
+    return Async.await(delegate.compareAndSet(expected, value));
+  }
+
+  /**
+   * @return the underlying Vert.x counter
+   */
+  public Counter getDelegate() {
+    return delegate;
+  }
+}
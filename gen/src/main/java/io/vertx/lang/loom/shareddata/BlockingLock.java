@@ -0,0 +1,30 @@
+package io.vertx.lang.loom.shareddata;
+
+import io.vertx.core.shareddata.Lock;
+
+/**
+ * An acquired shared data lock which can be held across blocking code and released via try-with-resources.
+ */
+public class BlockingLock implements AutoCloseable {
+
+  private final Lock delegate;
+
+  BlockingLock(Lock delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * @return the underlying Vert.x lock
+   */
+  public Lock getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Release the lock. Releasing an already released lock has no effect.
+   */
+  @Override
+  public void close() {
+    delegate.release();
+  }
+}
@@ -0,0 +1,45 @@
+package io.vertx.lang.loom.shareddata;
+
+import java.util.Map;
+
+/**
+ * Blocking variant of the shared data maps. Operations on local maps do not park, cluster wide maps park the virtual thread.
+ *
+ * @param <K>
+ *          the key type
+ * @param <V>
+ *          the value type
+ */
+public interface BlockingMap<K, V> {
+
+  V get(K key);
+
+  void put(K key, V value);
+
+  /**
+   * Put the value with a time to live.
+   *
+   * @param ttl
+   *          the time to live in milliseconds
+   */
+  void put(K key, V value, long ttl);
+
+  V putIfAbsent(K key, V value);
+
+  V remove(K key);
+
+  boolean removeIfPresent(K key, V value);
+
+  V replace(K key, V value);
+
+  boolean replaceIfPresent(K key, V oldValue, V newValue);
+
+  void clear();
+
+  int size();
+
+  /**
+   * @return a copy of the entries
+   */
+  Map<K, V> entries();
+}
@@ -0,0 +1,115 @@
+package io.vertx.lang.loom.shareddata;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.Counter;
+import io.vertx.core.shareddata.SharedData;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Loom native access to {@link SharedData}. All operations must be invoked from a virtual thread and park it instead of taking a callback.
+ * <p>
+ * In local mode the operations use the local data structures, whose futures are already completed and returned by the await fast path without parking. Maps
+ * are backed by {@link SharedData#getLocalAsyncMap(String)}, so the blocking and the async API see the same data under the same name. In clustered mode the
+ * operations await the cluster manager.
+ *
+ * <pre>
+ * BlockingSharedData sd = BlockingSharedData.create(vertx);
+ * try (BlockingLock lock = sd.lock("orders")) {
+ *   long next = sd.counter("order-id").incrementAndGet();
+ *   sd.&lt;Long, JsonObject&gt;map("orders").put(next, order);
+ * }
+ * </pre>
+ */
+public class BlockingSharedData {
+
+  private final SharedData sharedData;
+  private final boolean local;
+  private final Map<String, BlockingCounter> counters = new ConcurrentHashMap<>();
+  private final Map<String, BlockingMap<?, ?>> maps = new ConcurrentHashMap<>();
+
+  private BlockingSharedData(Vertx vertx, boolean local) {
+    this.sharedData = vertx.sharedData();
+    this.local = local;
+  }
+
+  /**
+   * Create the blocking shared data which uses the cluster wide data structures when Vert.x is clustered and the local ones otherwise.
+   *
+   * @param vertx
+   * @return the shared data
+   */
+  public static BlockingSharedData create(Vertx vertx) {
+    Objects.requireNonNull(vertx, "vertx must not be null");
+    return new BlockingSharedData(vertx, !vertx.isClustered());
+  }
+
+  /**
+   * Create the blocking shared data which always uses the local data structures, even when Vert.x is clustered.
+   *
+   * @param vertx
+   * @return the shared data
+   */
+  public static BlockingSharedData createLocal(Vertx vertx) {
+    Objects.requireNonNull(vertx, "vertx must not be null");
+    return new BlockingSharedData(vertx, true);
+  }
+
+  /**
+   * Acquire the lock with the given name. The virtual thread is parked until the lock is available.
+   *
+   * @param name
+   * @return the acquired lock which is released on {@link BlockingLock#close()}
+   */
+  public BlockingLock lock(String name) {
+    return new BlockingLock(Async.await(local ? sharedData.getLocalLock(name) : sharedData.getLock(name)));
+  }
+
+  /**
+   * Acquire the lock with the given name. The virtual thread is parked until the lock is available or the timeout elapsed.
+   *
+   * @param name
+   * @param timeout
+   *          the timeout in milliseconds
+   * @return the acquired lock which is released on {@link BlockingLock#close()}
+   */
+  public BlockingLock lock(String name, long timeout) {
+    return new BlockingLock(
+      Async.await(local ? sharedData.getLocalLockWithTimeout(name, timeout) : sharedData.getLockWithTimeout(name, timeout)));
+  }
+
+  /**
+   * Return the counter with the given name. The counter is resolved once and cached.
+   *
+   * @param name
+   * @return the counter
+   */
+  public BlockingCounter counter(String name) {
+    BlockingCounter counter = counters.get(name);
+    if (counter == null) {
+      Counter delegate = Async.await(local ? sharedData.getLocalCounter(name) : sharedData.getCounter(name));
+      counter = counters.computeIfAbsent(name, k -> new BlockingCounter(delegate));
+    }
+    return counter;
+  }
+
+  /**
+   * Return the map with the given name. The map is resolved once and cached.
+   *
+   * @param name
+   * @return the map
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> BlockingMap<K, V> map(String name) {
+    BlockingMap<K, V> map = (BlockingMap<K, V>) maps.get(name);
+    if (map == null) {
+      BlockingMap<K, V> created = new AwaitingBlockingMap<>(
+        Async.await(local ? sharedData.<K, V>getLocalAsyncMap(name) : sharedData.<K, V>getClusterWideMap(name)));
+      map = (BlockingMap<K, V>) maps.computeIfAbsent(name, k -> created);
+    }
+    return map;
+  }
+}
@@ -0,0 +1,65 @@
+package io.vertx.lang.loom.tracing;
+
+import io.vertx.core.Context;
+
+/**
+ * Instrumentation hook for virtual threads started via {@link io.vertx.lang.loom.Async}.
+ * <p>
+ * The tracer is informed when a virtual thread is launched, when it starts running, whenever it parks in an await and resumes again and finally when it
+ * ends. All methods except {@link #launch(Context, Object)} are invoked on the traced virtual thread itself, unless the thread could not be created. The span
+ * is then ended right away on the launching thread.
+ * <p>
+ * The launching Vert.x context is passed to {@link #launch(Context, Object)}. When the launch happens on a Vert.x thread this is the (possibly duplicated)
+ * context which holds the tracing data of the current request (see {@code ContextInternal#localContextData()}). {@link VertxTracerAdapter} uses it to report
+ * the virtual threads to the {@code VertxTracer} of vertx-tracing.
+ *
+ * @param <S>
+ *          the span type
+ */
+public interface AsyncTracer<S> {
+
+  /**
+   * Invoked on the launching thread when a new virtual thread is created.
+   *
+   * @param context
+   *          the Vert.x context of the launching code
+   * @param parent
+   *          the span of the launching virtual thread or {@code null} when launched from a Vert.x thread
+   * @return the span for the new virtual thread or {@code null} to not trace it
+   */
+  S launch(Context context, S parent);
+
+  /**
+   * Invoked when the virtual thread begins to run.
+   *
+   * @param span
+   */
+  default void start(S span) {
+  }
+
+  /**
+   * Invoked right before the virtual thread parks in an await.
+   *
+   * @param span
+   */
+  default void park(S span) {
+  }
+
+  /**
+   * Invoked right after the virtual thread resumed from an await.
+   *
+   * @param span
+   */
+  default void resume(S span) {
+  }
+
+  /**
+   * Invoked when the virtual thread has finished, or on the launching thread when the virtual thread was rejected.
+   *
+   * @param span
+   * @param failure
+   *          the failure of the code, the rejection of the thread or {@code null} when it completed normally
+   */
+  default void end(S span, Throwable failure) {
+  }
+}
@@ -0,0 +1,209 @@
+package io.vertx.lang.loom.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.vertx.core.Context;
+
+/**
+ * {@link AsyncTracer} which keeps the finished spans in memory. It is intended for tests and local analysis, e.g. to find which awaits dominate the latency
+ * of a request via {@link #awaitSites()}.
+ * <p>
+ * The recorded data follows the OpenTelemetry model: every virtual thread is a span and every park in an await is a span event.
+ */
+public class InMemoryAsyncTracer implements AsyncTracer<InMemoryAsyncTracer.Span> {
+
+  private static final StackWalker WALKER = StackWalker.getInstance();
+
+  private final Queue<Span> finished = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public Span launch(Context context, Span parent) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String traceId = parent != null ? parent.traceId : String.format("%016x%016x", random.nextLong(), random.nextLong());
+    String spanId = String.format("%016x", random.nextLong());
+    return new Span(traceId, spanId, parent != null ? parent.spanId : null);
+  }
+
+  @Override
+  public void start(Span span) {
+    span.threadName = Thread.currentThread().getName();
+    span.startNanos = System.nanoTime();
+  }
+
+  @Override
+  public void park(Span span) {
+    span.parkSite = WALKER.walk(frames -> frames
+      .filter(f -> !isInternal(f.getClassName()))
+      .findFirst()
+      .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+      .orElse("unknown"));
+    span.parkNanos = System.nanoTime();
+  }
+
+  @Override
+  public void resume(Span span) {
+    long now = System.nanoTime();
+    long parked = now - span.parkNanos;
+    span.parkedNanos += parked;
+    span.events.add(new AwaitEvent(span.parkSite, span.parkNanos, parked));
+    span.parkSite = null;
+  }
+
+  @Override
+  public void end(Span span, Throwable failure) {
+    span.endNanos = System.nanoTime();
+    span.failure = failure;
+    finished.add(span);
+  }
+
+  /**
+   * @return the spans of all virtual threads which have finished so far
+   */
+  public List<Span> finishedSpans() {
+    return new ArrayList<>(finished);
+  }
+
+  /**
+   * Aggregate the await events of all finished spans by their call site.
+   *
+   * @return the call sites, ordered by the total time spent parked
+   */
+  public List<AwaitSite> awaitSites() {
+    Map<String, long[]> sites = new HashMap<>();
+    for (Span span : finished) {
+      for (AwaitEvent event : span.events) {
+        long[] stats = sites.computeIfAbsent(event.site(), k -> new long[3]);
+        stats[0]++;
+        stats[1] += event.parkedNanos();
+        stats[2] = Math.max(stats[2], event.parkedNanos());
+      }
+    }
+    List<AwaitSite> result = new ArrayList<>();
+    sites.forEach((site, stats) -> result.add(new AwaitSite(site, stats[0], stats[1], stats[2])));
+    result.sort(Comparator.comparingLong(AwaitSite::totalParkedNanos).reversed());
+    return result;
+  }
+
+  /**
+   * Drop all recorded spans.
+   */
+  public void reset() {
+    finished.clear();
+  }
+
+  private static boolean isInternal(String className) {
+    return className.startsWith("io.vertx.lang.loom.Async")
+      || className.startsWith("io.vertx.lang.loom.Coroutine")
+      || className.startsWith("io.vertx.lang.loom.tracing.");
+  }
+
+  /**
+   * Span of a single virtual thread. The mutable state is only modified by the traced thread.
+   */
+  public static final class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final Instant launchTime = Instant.now();
+    private final long launchNanos = System.nanoTime();
+    private final List<AwaitEvent> events = new ArrayList<>();
+    private String threadName;
+    private long startNanos;
+    private long endNanos;
+    private long parkedNanos;
+    private long parkNanos;
+    private String parkSite;
+    private Throwable failure;
+
+    Span(String traceId, String spanId, String parentSpanId) {
+      this.traceId = traceId;
+      this.spanId = spanId;
+      this.parentSpanId = parentSpanId;
+    }
+
+    public String traceId() {
+      return traceId;
+    }
+
+    public String spanId() {
+      return spanId;
+    }
+
+    /**
+     * @return the id of the parent span or {@code null} for root spans
+     */
+    public String parentSpanId() {
+      return parentSpanId;
+    }
+
+    public String threadName() {
+      return threadName;
+    }
+
+    public Instant launchTime() {
+      return launchTime;
+    }
+
+    /**
+     * @return time between the launch and the first execution of the virtual thread
+     */
+    public long queuedNanos() {
+      return startNanos - launchNanos;
+    }
+
+    /**
+     * @return time the virtual thread spent parked in awaits
+     */
+    public long parkedNanos() {
+      return parkedNanos;
+    }
+
+    /**
+     * @return time the virtual thread was mounted on the carrier, excluding the time spent parked in awaits
+     */
+    public long runningNanos() {
+      return endNanos - startNanos - parkedNanos;
+    }
+
+    public long durationNanos() {
+      return endNanos - launchNanos;
+    }
+
+    public List<AwaitEvent> events() {
+      return Collections.unmodifiableList(events);
+    }
+
+    public Throwable failure() {
+      return failure;
+    }
+  }
+
+  /**
+   * Span event for a single park in an await.
+   *
+   * @param site
+   *          the user code location which awaited
+   * @param timestampNanos
+   *          the {@link System#nanoTime()} at which the thread parked
+   * @param parkedNanos
+   *          how long the thread was parked
+   */
+  public record AwaitEvent(String site, long timestampNanos, long parkedNanos) {
+  }
+
+  /**
+   * Aggregated await statistics for a single call site.
+   */
+  public record AwaitSite(String site, long count, long totalParkedNanos, long maxParkedNanos) {
+  }
+}
@@ -0,0 +1,76 @@
+package io.vertx.lang.loom.tracing;
+
+import java.util.Objects;
+
+import io.vertx.core.Context;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.spi.tracing.SpanKind;
+import io.vertx.core.spi.tracing.TagExtractor;
+import io.vertx.core.spi.tracing.VertxTracer;
+import io.vertx.core.tracing.TracingPolicy;
+
+/**
+ * {@link AsyncTracer} which reports virtual threads to the {@link VertxTracer} of the Vert.x instance, e.g. the one of vertx-opentelemetry or vertx-zipkin
+ * which has been configured via {@code VertxOptions#setTracingOptions}:
+ *
+ * <pre>
+ * Async.configure(new AsyncOptions().setTracer(new VertxTracerAdapter()));
+ * </pre>
+ *
+ * Every virtual thread is reported like an outgoing request of the launching context, so it becomes a child span of the span which the tracer keeps in the
+ * local data of that context. The virtual thread runs on the launching context, the span of the request is therefore propagated into it through the
+ * {@link ContextInternal} locals. Threads which are launched without an active span are not traced ({@link TracingPolicy#PROPAGATE}).
+ * <p>
+ * The {@link VertxTracer} SPI has no notion of span events, the awaits of a thread are not reported. Nested virtual threads are children of the span of the
+ * context, not of the span of the launching thread.
+ */
+public class VertxTracerAdapter implements AsyncTracer<VertxTracerAdapter.Span> {
+
+  private final String operation;
+
+  public VertxTracerAdapter() {
+    this("virtual-thread");
+  }
+
+  /**
+   * @param operation
+   *          the operation name of the spans
+   */
+  public VertxTracerAdapter(String operation) {
+    this.operation = Objects.requireNonNull(operation, "operation must not be null");
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Span launch(Context context, Span parent) {
+    ContextInternal ctx = (ContextInternal) context;
+    VertxTracer<Object, Object> tracer = ctx.tracer();
+    if (tracer == null) {
+      return null;
+    }
+    Object payload = tracer.sendRequest(ctx, SpanKind.RPC, TracingPolicy.PROPAGATE, operation, operation, (name, value) -> {
+    }, TagExtractor.empty());
+    return payload != null ? new Span(ctx, tracer, payload) : null;
+  }
+
+  @Override
+  public void end(Span span, Throwable failure) {
+    span.tracer.receiveResponse(span.context, null, span.payload, failure, TagExtractor.empty());
+  }
+
+  /**
+   * Payload of the {@link VertxTracer} for a single virtual thread.
+   */
+  public static final class Span {
+
+    private final ContextInternal context;
+    private final VertxTracer<Object, Object> tracer;
+    private final Object payload;
+
+    Span(ContextInternal context, VertxTracer<Object, Object> tracer, Object payload) {
+      this.context = context;
+      this.tracer = tracer;
+      this.payload = payload;
+    }
+  }
+}
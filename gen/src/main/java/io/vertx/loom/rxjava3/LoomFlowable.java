@@ -0,0 +1,45 @@
+package io.vertx.loom.rxjava3;
+
+import java.util.concurrent.Callable;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.vertx.lang.loom.Async;
+
+/**
+ * Operators which bridge blocking loom code into RxJava3 pipelines.
+ */
+public final class LoomFlowable {
+
+	private LoomFlowable() {
+	}
+
+	/**
+	 * Run the producer on a virtual thread of the Vert.x context of the subscriber and emit its result. The producer may block and await, the event loop
+	 * stays free. The item is only emitted once it has been requested. A null result completes the flowable empty. Cancelling the subscription interrupts
+	 * the virtual thread.
+	 *
+	 * @param producer
+	 * @return the flowable
+	 */
+	public static <T> Flowable<T> fromBlocking(Callable<T> producer) {
+		return Maybe.<T>create(emitter -> {
+			Thread thread = Async.async(() -> {
+				T result;
+				try {
+					result = producer.call();
+				} catch (Throwable t) {
+					emitter.tryOnError(t);
+					return;
+				}
+				if (result == null) {
+					emitter.onComplete();
+				} else {
+					emitter.onSuccess(result);
+				}
+			});
+			emitter.setCancellable(thread::interrupt);
+		}).toFlowable();
+	}
+
+}
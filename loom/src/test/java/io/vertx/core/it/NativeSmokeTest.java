@@ -0,0 +1,58 @@
+package io.vertx.core.it;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.lang.loom.Async;
+import io.vertx.loom.core.Vertx;
+import io.vertx.loom.core.eventbus.Message;
+import io.vertx.loom.core.http.HttpClient;
+import io.vertx.loom.ext.web.Router;
+import io.vertx.test.core.AsyncTestBase;
+
+/**
+ * Scenario which is executed as native executable by the native profile. It touches the generated wrappers, the virtual thread factory and await.
+ * <p>
+ * Experimental: the profile has not been built successfully yet, see the Native Image section of the README.
+ */
+public class NativeSmokeTest extends AsyncTestBase {
+
+	private Vertx vertx;
+
+	@After
+	public void closeVertx() {
+		if (vertx != null) {
+			vertx.getDelegate().close();
+		}
+	}
+
+	@Test
+	public void testRouterWithEventBus() {
+		vertx = Vertx.vertx();
+		vertx.eventBus().consumer("greeting", (Message<String> msg) -> {
+			msg.reply("Hello " + msg.body());
+		});
+
+		Router router = Router.router(vertx);
+		router.route("/greet").handler(rc -> {
+			Message<Object> reply = Async.await(vertx.eventBus().request("greeting", "native"));
+			rc.end(new JsonObject().put("greeting", reply.body()).encode());
+		});
+
+		vertx.createHttpServer().requestHandler(router).listen(0, "localhost", onSuccess(s -> {
+			HttpClient client = vertx.createHttpClient();
+			client.request(HttpMethod.GET, s.actualPort(), "localhost", "/greet", onSuccess(req -> {
+				req.send(onSuccess(resp -> {
+					resp.bodyHandler(buff -> {
+						assertEquals("Hello native", buff.toJsonObject().getString("greeting"));
+						testComplete();
+					});
+				}));
+			}));
+		}));
+		await();
+	}
+
+}
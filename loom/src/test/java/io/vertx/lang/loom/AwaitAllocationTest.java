@@ -0,0 +1,70 @@
+package io.vertx.lang.loom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * Verifies the allocation budget of the await fast path. Awaiting an already completed future on a virtual thread must not allocate.
+ * <p>
+ * The allocations of a mounted virtual thread are accounted to its carrier, which is the event loop thread of the context. The virtual thread does not
+ * yield while it awaits completed futures, so it stays mounted on the event loop for the whole measurement.
+ */
+public class AwaitAllocationTest {
+
+  private static final int WARMUP = 100_000;
+  private static final int ITERATIONS = 1_000_000;
+
+  @Test
+  public void testCompletedFutureAwaitDoesNotAllocate() throws Exception {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Assume.assumeTrue("Thread allocation measurement is not supported", threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+
+    Vertx vertx = Vertx.vertx();
+    try {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      vertx.runOnContext(v -> {
+        long carrier = Thread.currentThread().getId();
+        Async.async(() -> {
+          assertTrue("The await should run on a virtual thread", Thread.currentThread().isVirtual());
+          Future<String> future = Future.succeededFuture("value");
+
+          // Let the JIT settle before measuring
+          for (int i = 0; i < WARMUP; i++) {
+            assertEquals("value", Async.await(future));
+          }
+
+          long before = threads.getThreadAllocatedBytes(carrier);
+          for (int i = 0; i < ITERATIONS; i++) {
+            Async.await(future);
+          }
+          long allocated = threads.getThreadAllocatedBytes(carrier) - before;
+          double perAwait = (double) allocated / ITERATIONS;
+          // Allow a little noise from the measurement itself
+          assertTrue("The await fast path should not allocate. Got " + perAwait + " bytes per await", perAwait < 1);
+          return null;
+        }).onComplete(ar -> {
+          if (ar.succeeded()) {
+            done.complete(null);
+          } else {
+            done.completeExceptionally(ar.cause());
+          }
+        });
+      });
+      done.get(60, TimeUnit.SECONDS);
+    } finally {
+      vertx.close();
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+package io.vertx.lang.loom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vertx.core.Promise;
+import io.vertx.lang.loom.hedge.HedgeOptions;
+import io.vertx.lang.loom.hedge.Hedger;
+import io.vertx.lang.loom.test.AbstactAsyncLoomTest;
+import io.vertx.loom.core.Vertx;
+
+/**
+ * Closes the {@link AsyncContext} directly, so that the launch of the hedge is rejected while the first call is still running.
+ */
+public class HedgeRejectionTest extends AbstactAsyncLoomTest {
+
+  @Test
+  public void testRejectedHedgeFailsWithTheCall() {
+    Vertx vertx = Vertx.vertx();
+    Hedger hedger = new Hedger(new HedgeOptions().setMinSamples(10).setMinDelay(20));
+    AtomicInteger attempts = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      for (int i = 0; i < 20; i++) {
+        hedger.await("op", () -> "warm");
+      }
+      try {
+        hedger.await("op", () -> {
+          attempts.incrementAndGet();
+          // The hedge is launched after the minimum delay and rejected, since the context has been closed
+          AsyncContext.of(Async.currentVertxContext()).close(Promise.promise());
+          Thread.sleep(100);
+          throw new IllegalStateException("backend down");
+        });
+        fail("The call should have failed");
+      } catch (RuntimeException e) {
+        assertTrue("Got " + e.getCause(), e.getCause() instanceof IllegalStateException);
+      }
+      assertEquals(1, attempts.get());
+      assertEquals("The rejected hedge should not be counted", 0, hedger.hedges());
+      testComplete();
+    });
+    waitFor();
+  }
+
+}
@@ -1,10 +1,14 @@
 package io.vertx.lang.loom;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Locale;
+import java.util.stream.Stream;
 
 import javax.tools.Diagnostic;
 import javax.tools.DiagnosticCollector;
@@ -64,6 +68,22 @@ public class LoomGeneratorTest {
   @Test
   public void testRoute() throws Exception {
     assertCompile("Loom", Route.class);
+    String source;
+    try (Stream<Path> files = Files.walk(testDir.toPath())) {
+      Path route = files.filter(f -> f.getFileName().toString().equals("Route.java")).findFirst().orElseThrow();
+      source = Files.readString(route);
+    }
+    boolean found = false;
+    for (String method : source.split("\n  public ")) {
+      String signature = method.substring(0, method.indexOf('\n'));
+      if (signature.contains(" handler(Handler<")) {
+        found = true;
+        assertTrue("The request handler should shed throttled requests with 503", method.contains("fail(503"));
+      } else if (signature.contains(" failureHandler(")) {
+        assertFalse("The failure handler must not re-enter the failure routing", method.contains("fail(503"));
+      }
+    }
+    assertTrue("The generated Route should have a request handler", found);
   }
 
   @Test
@@ -0,0 +1,136 @@
+package io.vertx.lang.loom.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import io.vertx.core.Context;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Collects the memory, GC and event loop metrics of a single load test level.
+ */
+class LoadTestMetrics implements AutoCloseable {
+
+  private static final String STACK_CHUNK_CLASS = "jdk.internal.vm.StackChunk";
+
+  private final List<Long> gcPauses = Collections.synchronizedList(new ArrayList<>());
+  private final List<Long> lags = Collections.synchronizedList(new ArrayList<>());
+  private final List<NotificationEmitter> emitters = new ArrayList<>();
+  private final NotificationListener gcListener = this::onGcNotification;
+  private final ScheduledExecutorService probe = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "loadtest-lag-probe");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Start to record GC pauses and to probe the event loop of the given context every 10 ms.
+   */
+  LoadTestMetrics(Context context) {
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gc instanceof NotificationEmitter emitter) {
+        emitter.addNotificationListener(gcListener, null, null);
+        emitters.add(emitter);
+      }
+    }
+    probe.scheduleAtFixedRate(() -> {
+      long submitted = System.nanoTime();
+      context.runOnContext(v -> lags.add(System.nanoTime() - submitted));
+    }, 10, 10, TimeUnit.MILLISECONDS);
+  }
+
+  private void onGcNotification(Notification notification, Object handback) {
+    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+      GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+      gcPauses.add(info.getGcInfo().getDuration());
+    }
+  }
+
+  /**
+   * @return the used heap in bytes after a full GC
+   */
+  static long usedHeapAfterGc() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  /**
+   * Read the total size of the heap allocated continuation stack chunks from the class histogram.
+   *
+   * @return the size in bytes or -1 when the histogram is not available
+   */
+  static long stackChunkBytes() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName("com.sun.management:type=DiagnosticCommand");
+      String histogram = (String) server.invoke(name, "gcClassHistogram", new Object[] { new String[0] },
+        new String[] { String[].class.getName() });
+      for (String line : histogram.split("\n")) {
+        String[] columns = line.trim().split("\\s+");
+        if (columns.length >= 4 && columns[3].equals(STACK_CHUNK_CLASS)) {
+          return Long.parseLong(columns[2]);
+        }
+      }
+      return 0;
+    } catch (Exception e) {
+      return -1;
+    }
+  }
+
+  JsonObject gcPauseReport() {
+    return distribution(gcPauses, 1);
+  }
+
+  JsonObject lagReport() {
+    return distribution(lags, 1_000_000);
+  }
+
+  /**
+   * Build the distribution of the samples in milliseconds.
+   */
+  private static JsonObject distribution(List<Long> samples, long divisor) {
+    List<Long> sorted;
+    synchronized (samples) {
+      sorted = new ArrayList<>(samples);
+    }
+    Collections.sort(sorted);
+    JsonObject json = new JsonObject().put("count", sorted.size());
+    if (!sorted.isEmpty()) {
+      json.put("p50Ms", percentile(sorted, 0.5) / (double) divisor)
+        .put("p90Ms", percentile(sorted, 0.9) / (double) divisor)
+        .put("p99Ms", percentile(sorted, 0.99) / (double) divisor)
+        .put("maxMs", sorted.get(sorted.size() - 1) / (double) divisor);
+    }
+    return json;
+  }
+
+  private static long percentile(List<Long> sorted, double percentile) {
+    int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+    return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+  }
+
+  @Override
+  public void close() throws Exception {
+    probe.shutdownNow();
+    for (NotificationEmitter emitter : emitters) {
+      emitter.removeNotificationListener(gcListener);
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package io.vertx.lang.loom.loadtest;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Promise;
+import io.vertx.core.http.Http2Settings;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.lang.loom.Async;
+import io.vertx.loom.core.Vertx;
+import io.vertx.loom.core.eventbus.EventBus;
+import io.vertx.loom.ext.web.Router;
+
+/**
+ * Soak and scale test which parks a large number of virtual threads in {@link Async#await(io.vertx.core.Future)}, on their own and via the generated
+ * {@link Router} and {@link EventBus} wrappers. For every level the heap per parked virtual thread, respectively per parked request including the HTTP/2
+ * stream or the message, the continuation stack size, the GC pause distribution and the event loop lag are written as JSON to {@code target/loadtest}.
+ * <p>
+ * The test is excluded from the default build. Run it via {@code mvn test -Ploadtest}, the levels can be changed via
+ * {@code -Dloom.loadtest.levels=10000,100000,1000000}.
+ */
+public class ScaleLoadTest {
+
+  private static final Logger log = LoggerFactory.getLogger(ScaleLoadTest.class);
+
+  private static final int[] LEVELS = Arrays.stream(System.getProperty("loom.loadtest.levels", "10000,100000,1000000").split(","))
+    .map(String::trim)
+    .mapToInt(Integer::parseInt)
+    .toArray();
+  private static final File REPORT_DIR = new File(System.getProperty("loom.loadtest.reportDir", "target/loadtest"));
+  private static final long TIMEOUT_MS = Long.getLong("loom.loadtest.timeout", TimeUnit.MINUTES.toMillis(10));
+  private static final int HTTP_CONNECTIONS = Integer.getInteger("loom.loadtest.connections", 8);
+
+  @Test
+  public void testThreads() throws Exception {
+    JsonArray reports = new JsonArray();
+    for (int level : LEVELS) {
+      reports.add(runThreads(level));
+    }
+    writeReport("threads", reports);
+  }
+
+  @Test
+  public void testEventBus() throws Exception {
+    JsonArray reports = new JsonArray();
+    for (int level : LEVELS) {
+      reports.add(runEventBus(level));
+    }
+    writeReport("eventbus", reports);
+  }
+
+  @Test
+  public void testRouter() throws Exception {
+    JsonArray reports = new JsonArray();
+    for (int level : LEVELS) {
+      reports.add(runRouter(level));
+    }
+    writeReport("router", reports);
+  }
+
+  /**
+   * Park plain virtual threads without any request state, so that the heap delta only holds the threads themselves.
+   */
+  private JsonObject runThreads(int level) throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      Context context = vertx.getDelegate().getOrCreateContext();
+      Promise<Void> gate = Promise.promise();
+      AtomicLong parked = new AtomicLong();
+      AtomicLong done = new AtomicLong();
+      return measure("threads", "heapPerParkedThreadBytes", level, context, parked, done, gate, () -> context.runOnContext(v -> {
+        for (int i = 0; i < level; i++) {
+          Async.async(() -> {
+            parked.incrementAndGet();
+            Async.await(gate.future());
+            done.incrementAndGet();
+          });
+        }
+      }));
+    } finally {
+      vertx.getDelegate().close().toCompletionStage().toCompletableFuture().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private JsonObject runEventBus(int level) throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      Context context = vertx.getDelegate().getOrCreateContext();
+      Promise<Void> gate = Promise.promise();
+      AtomicLong parked = new AtomicLong();
+      AtomicLong done = new AtomicLong();
+      Promise<Void> registered = Promise.promise();
+      context.runOnContext(v -> {
+        EventBus eb = vertx.eventBus();
+        eb.consumer("loadtest", msg -> {
+          parked.incrementAndGet();
+          Async.await(gate.future());
+          done.incrementAndGet();
+        }).completionHandler(registered);
+      });
+      registered.future().toCompletionStage().toCompletableFuture().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+      return measure("eventbus", "heapPerRequestBytes", level, context, parked, done, gate, () -> {
+        io.vertx.core.eventbus.EventBus eb = vertx.eventBus().getDelegate();
+        for (int i = 0; i < level; i++) {
+          eb.send("loadtest", i);
+        }
+      });
+    } finally {
+      vertx.getDelegate().close().toCompletionStage().toCompletableFuture().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private JsonObject runRouter(int level) throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      Context context = vertx.getDelegate().getOrCreateContext();
+      Promise<Void> gate = Promise.promise();
+      AtomicLong parked = new AtomicLong();
+      AtomicLong done = new AtomicLong();
+      Promise<Integer> listening = Promise.promise();
+      context.runOnContext(v -> {
+        Router router = Router.router(vertx);
+        router.route("/park").handler(rc -> {
+          parked.incrementAndGet();
+          Async.await(gate.future());
+          rc.end();
+          done.incrementAndGet();
+        });
+        // A few multiplexed HTTP/2 connections carry all requests
+        HttpServerOptions options = new HttpServerOptions()
+          .setInitialSettings(new Http2Settings().setMaxConcurrentStreams(level));
+        vertx.getDelegate().createHttpServer(options)
+          .requestHandler(req -> router.getDelegate().handle(req))
+          .listen(0, "localhost")
+          .onComplete(ar -> listening.handle(ar.map(s -> s.actualPort())));
+      });
+      int port = listening.future().toCompletionStage().toCompletableFuture().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+      HttpClient client = vertx.getDelegate().createHttpClient(new HttpClientOptions()
+        .setProtocolVersion(HttpVersion.HTTP_2)
+        .setHttp2ClearTextUpgrade(false)
+        .setHttp2MaxPoolSize(HTTP_CONNECTIONS)
+        .setHttp2MultiplexingLimit(level / HTTP_CONNECTIONS + 1));
+      return measure("router", "heapPerRequestBytes", level, context, parked, done, gate, () -> {
+        for (int i = 0; i < level; i++) {
+          client.request(HttpMethod.GET, port, "localhost", "/park").compose(HttpClientRequest::send);
+        }
+      });
+    } finally {
+      vertx.getDelegate().close().toCompletionStage().toCompletableFuture().get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Fire the load, wait until all virtual threads are parked, take the memory snapshot and release them again.
+   *
+   * @param heapMetric
+   *          the name of the heap delta per level, it covers everything the load allocated and stays reachable while parked
+   */
+  private JsonObject measure(String scenario, String heapMetric, int level, Context context, AtomicLong parked, AtomicLong done, Promise<Void> gate, Runnable load)
+    throws Exception {
+    long baselineHeap = LoadTestMetrics.usedHeapAfterGc();
+    long baselineChunks = LoadTestMetrics.stackChunkBytes();
+
+    try (LoadTestMetrics metrics = new LoadTestMetrics(context)) {
+      long start = System.nanoTime();
+      load.run();
+      waitFor(() -> parked.get() >= level, scenario + " did not park " + level + " threads, got " + parked.get());
+      long rampUp = System.nanoTime() - start;
+
+      long heap = LoadTestMetrics.usedHeapAfterGc();
+      long chunks = LoadTestMetrics.stackChunkBytes();
+
+      long release = System.nanoTime();
+      gate.complete();
+      waitFor(() -> done.get() >= level, scenario + " did not resume " + level + " threads, got " + done.get());
+      long drain = System.nanoTime() - release;
+
+      JsonObject report = new JsonObject()
+        .put("scenario", scenario)
+        .put("level", level)
+        .put("jvm", System.getProperty("java.vm.version"))
+        .put("rampUpMs", TimeUnit.NANOSECONDS.toMillis(rampUp))
+        .put("resumeMs", TimeUnit.NANOSECONDS.toMillis(drain))
+        .put(heapMetric, (heap - baselineHeap) / level)
+        .put("stackChunkBytesPerParkedThread", chunks < 0 || baselineChunks < 0 ? -1 : (chunks - baselineChunks) / level)
+        .put("gcPauses", metrics.gcPauseReport())
+        .put("eventLoopLag", metrics.lagReport());
+      log.info(report.encode());
+      return report;
+    }
+  }
+
+  private static void waitFor(BooleanSupplier condition, String message) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (!condition.getAsBoolean()) {
+      assertTrue(message, System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private static void writeReport(String scenario, JsonArray reports) throws Exception {
+    REPORT_DIR.mkdirs();
+    File file = new File(REPORT_DIR, scenario + ".json");
+    Files.writeString(file.toPath(), reports.encodePrettily(), StandardCharsets.UTF_8);
+    log.info("Wrote " + file.getAbsolutePath());
+  }
+}
@@ -43,6 +43,16 @@ public abstract class AbstactAsyncLoomTest {
     base.testComplete();
   }
 
+  /**
+   * @return the name of the carrier thread the current virtual thread is mounted on, which a mounted virtual thread reports after the {@code @}
+   */
+  public static String carrier() {
+    String description = Thread.currentThread().toString();
+    int at = description.lastIndexOf('@');
+    assertTrue("The carrier is not part of " + description, at >= 0);
+    return description.substring(at + 1);
+  }
+
   public void expectLoomThread() {
     Thread thread = Thread.currentThread();
     assertTrue("The thread did not have the correct name. Got: " + thread.getName(), thread.getName().startsWith("vert.x-virtual-thread-"));
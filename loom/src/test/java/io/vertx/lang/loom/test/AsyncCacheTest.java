@@ -0,0 +1,155 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.cache.AsyncCache;
+import io.vertx.lang.loom.cache.AsyncCacheOptions;
+import io.vertx.loom.core.Vertx;
+
+public class AsyncCacheTest extends AbstactAsyncLoomTest {
+
+  @Test
+  public void testConcurrentAwaitsShareOneLoad() {
+    Vertx vertx = Vertx.vertx();
+    AsyncCache<String, Integer> cache = new AsyncCache<>();
+    AtomicInteger loads = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      List<Future> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        results.add(Async.async(() -> cache.await("key", key -> {
+          loads.incrementAndGet();
+          Thread.sleep(100);
+          return 42;
+        })));
+      }
+      Async.await(CompositeFuture.all(results));
+      for (Future result : results) {
+        assertEquals(42, result.result());
+      }
+      assertEquals("The value should have been loaded once", 1, loads.get());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testExpiredValueIsLoadedAgain() {
+    Vertx vertx = Vertx.vertx();
+    AsyncCache<String, Integer> cache = new AsyncCache<>(new AsyncCacheOptions().setTtl(50));
+    AtomicInteger loads = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      assertEquals(1, (int) cache.await("key", key -> loads.incrementAndGet()));
+      assertEquals(1, (int) cache.await("key", key -> loads.incrementAndGet()));
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      assertEquals(2, (int) cache.await("key", key -> loads.incrementAndGet()));
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testFailureIsNotCached() {
+    Vertx vertx = Vertx.vertx();
+    AsyncCache<String, String> cache = new AsyncCache<>();
+    vertx.runOnContext(v -> {
+      try {
+        cache.await("key", key -> {
+          throw new IllegalStateException("backend down");
+        });
+        fail("The load should have failed");
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      assertEquals("value", cache.await("key", key -> "value"));
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testLoadWhichCanNotStartIsNotLeftInFlight() {
+    AsyncCache<String, String> cache = new AsyncCache<>();
+    // Without a Vert.x context the virtual thread of the load can not be launched
+    Future<String> result = cache.get("key", key -> "value");
+    assertTrue("The load should have failed", result.failed());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testStaleValueIsServedWhileRefreshing() {
+    Vertx vertx = Vertx.vertx();
+    AsyncCache<String, Integer> cache = new AsyncCache<>(new AsyncCacheOptions().setRefreshAfter(50));
+    AtomicInteger loads = new AtomicInteger();
+    AsyncCache.Loader<String, Integer> loader = key -> {
+      int value = loads.incrementAndGet();
+      if (value > 1) {
+        Thread.sleep(100);
+      }
+      return value;
+    };
+    vertx.runOnContext(v -> {
+      assertEquals(1, (int) cache.await("key", loader));
+      try {
+        Thread.sleep(100);
+        // Stale, the old value is returned right away and the refresh runs in the background
+        assertEquals(1, (int) cache.await("key", loader));
+        assertEquals(1, (int) cache.await("key", loader));
+        Thread.sleep(200);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      assertEquals(2, (int) cache.await("key", loader));
+      assertEquals(2, loads.get());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testMaxSize() {
+    Vertx vertx = Vertx.vertx();
+    AsyncCache<Integer, Integer> cache = new AsyncCache<>(new AsyncCacheOptions().setMaxSize(10));
+    vertx.runOnContext(v -> {
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i, (int) cache.await(i, key -> key));
+      }
+      assertTrue("The cache should be bounded, got " + cache.size(), cache.size() <= 11);
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testRecentlyUsedKeySurvivesEviction() {
+    Vertx vertx = Vertx.vertx();
+    AsyncCache<Integer, Integer> cache = new AsyncCache<>(new AsyncCacheOptions().setMaxSize(50));
+    AtomicInteger hotLoads = new AtomicInteger();
+    AsyncCache.Loader<Integer, Integer> hot = key -> hotLoads.incrementAndGet();
+    vertx.runOnContext(v -> {
+      cache.await(-1, hot);
+      for (int i = 0; i < 2_000; i++) {
+        assertEquals(i, (int) cache.await(i, key -> key));
+        cache.await(-1, hot);
+      }
+      assertEquals("The most recently used key should never have been evicted", 1, hotLoads.get());
+      assertTrue("The cache should be bounded, got " + cache.size(), cache.size() <= 51);
+      testComplete();
+    });
+    waitFor();
+  }
+}
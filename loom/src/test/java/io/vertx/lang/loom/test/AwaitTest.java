@@ -0,0 +1,69 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.Promise;
+import io.vertx.core.VertxException;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AsyncOptions;
+import io.vertx.loom.core.Vertx;
+
+public class AwaitTest extends AbstactAsyncLoomTest {
+
+  @After
+  public void resetOptions() {
+    Async.configure(new AsyncOptions());
+  }
+
+  @Test
+  public void testAwaitFutureCompletedOnForeignThread() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      String eventLoop = Thread.currentThread().getName();
+      Async.async(() -> {
+        Promise<String> promise = Promise.promise();
+        new Thread(() -> {
+          try {
+            // Complete after the virtual thread parked
+            Thread.sleep(50);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          promise.complete("foreign");
+        }).start();
+        assertEquals("foreign", Async.await(promise.future()));
+        expectLoomThread();
+        assertEquals("The continuation should have been scheduled on the event loop of the owning context", eventLoop, carrier());
+        return null;
+      }).onComplete(onSuccess(r -> testComplete()));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testPendingAwaitFailsOnUndeploy() {
+    Async.configure(new AsyncOptions().setDrainTimeout(100));
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().deployVerticle(new io.vertx.core.AbstractVerticle() {
+      @Override
+      public void start() {
+        Async.async(() -> {
+          try {
+            // This future never completes
+            Async.await(Promise.<Void>promise().future());
+          } catch (VertxException e) {
+            assertTrue(e.getMessage().contains("closed while awaiting"));
+            testComplete();
+          }
+        });
+      }
+    }, onSuccess(deploymentId -> {
+      vertx.getDelegate().undeploy(deploymentId);
+    }));
+    waitFor();
+  }
+}
@@ -0,0 +1,114 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.batch.BatchLoader;
+import io.vertx.lang.loom.batch.BatchLoaderOptions;
+import io.vertx.loom.core.Vertx;
+
+public class BatchLoaderTest extends AbstactAsyncLoomTest {
+
+  private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+  private Map<Integer, String> loadNames(List<Integer> keys) throws InterruptedException {
+    batches.add(keys);
+    Thread.sleep(10);
+    Map<Integer, String> names = new HashMap<>();
+    for (Integer key : keys) {
+      names.put(key, "name-" + key);
+    }
+    return names;
+  }
+
+  @Test
+  public void testLoadsOfOneTickAreBatched() {
+    Vertx vertx = Vertx.vertx();
+    BatchLoader<Integer, String> loader = new BatchLoader<>(this::loadNames);
+    vertx.getDelegate().runOnContext(v -> {
+      List<Future> results = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        int id = i % 5;
+        results.add(Async.async(() -> loader.load(id)));
+      }
+      CompositeFuture.all(results).onComplete(onSuccess(all -> {
+        for (int i = 0; i < 10; i++) {
+          assertEquals("name-" + (i % 5), results.get(i).result());
+        }
+        assertEquals("The keys should have been loaded with one deduplicated batch", 1, batches.size());
+        assertEquals(5, batches.get(0).size());
+        testComplete();
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testLoadsOfSeparatelyDispatchedHandlersAreBatched() {
+    Vertx vertx = Vertx.vertx();
+    BatchLoader<Integer, String> loader = new BatchLoader<>(this::loadNames);
+    ContextInternal context = (ContextInternal) vertx.getDelegate().getOrCreateContext();
+    context.runOnContext(v -> {
+      List<Future> results = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        int id = i;
+        Promise<String> result = Promise.promise();
+        // Every request handler runs on a duplicated context of its own
+        context.duplicate().runOnContext(v2 -> Async.async(() -> loader.load(id)).onComplete(result));
+        results.add(result.future());
+      }
+      CompositeFuture.all(results).onComplete(onSuccess(all -> {
+        assertEquals("name-0", results.get(0).result());
+        assertEquals("name-1", results.get(1).result());
+        assertEquals("The loads of both handlers should have been loaded with one batch", 1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        testComplete();
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testFullBatchIsDispatched() {
+    Vertx vertx = Vertx.vertx();
+    BatchLoader<Integer, String> loader = new BatchLoader<>(this::loadNames, new BatchLoaderOptions().setMaxBatchSize(3));
+    vertx.runOnContext(v -> {
+      List<String> names = loader.loadMany(List.of(1, 2, 3, 4, 5, 6, 7));
+      assertEquals(7, names.size());
+      assertEquals("name-7", names.get(6));
+      assertEquals(3, batches.size());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testFailedBatch() {
+    Vertx vertx = Vertx.vertx();
+    BatchLoader<Integer, String> loader = new BatchLoader<>(keys -> {
+      throw new IllegalStateException("backend down");
+    });
+    vertx.runOnContext(v -> {
+      try {
+        loader.load(1);
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        testComplete();
+      }
+    });
+    waitFor();
+  }
+}
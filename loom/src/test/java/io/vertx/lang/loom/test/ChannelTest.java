@@ -0,0 +1,102 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.Channel;
+import io.vertx.loom.core.Vertx;
+
+public class ChannelTest extends AbstactAsyncLoomTest {
+
+  @Test
+  public void testCapacityIsRoundedUp() {
+    assertEquals(8, new Channel<String>(5).capacity());
+    assertEquals(1, new Channel<String>(1).capacity());
+  }
+
+  @Test
+  public void testTrySendOnFullChannel() {
+    Channel<Integer> channel = new Channel<>(2);
+    assertTrue(channel.trySend(1));
+    assertTrue(channel.trySend(2));
+    assertFalse(channel.trySend(3));
+    assertEquals(2, channel.size());
+    assertEquals(1, (int) channel.tryReceive());
+    assertTrue(channel.trySend(3));
+  }
+
+  @Test
+  public void testProducerIsSlowedDownToConsumer() {
+    Vertx vertx = Vertx.vertx();
+    Channel<Integer> channel = new Channel<>(4);
+    vertx.runOnContext(v -> {
+      Future<Void> producer = Async.async(() -> {
+        for (int i = 1; i <= 100; i++) {
+          channel.send(i);
+          assertTrue("The channel should never exceed its capacity", channel.size() <= channel.capacity());
+        }
+        channel.close();
+        return null;
+      });
+      long sum = 0;
+      for (Integer item; (item = channel.receive()) != null;) {
+        expectLoomThread();
+        sum += item;
+        if (item % 10 == 0) {
+          try {
+            Thread.sleep(5);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      }
+      assertEquals(5050, sum);
+      Async.await(producer);
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testSelect() {
+    Vertx vertx = Vertx.vertx();
+    Channel<String> first = new Channel<>(1);
+    Channel<String> second = new Channel<>(1);
+    vertx.runOnContext(v -> {
+      vertx.setTimer(50, id -> second.send("second"));
+      Channel.Selected<String> selected = Channel.select(first, second);
+      assertSame(second, selected.channel());
+      assertEquals("second", selected.value());
+      first.close();
+      second.close();
+      assertNull(Channel.select(first, second));
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testCloseResumesParkedThreads() {
+    Vertx vertx = Vertx.vertx();
+    Channel<String> channel = new Channel<>(1);
+    vertx.runOnContext(v -> {
+      vertx.setTimer(50, id -> channel.close());
+      assertNull(channel.receive());
+      try {
+        channel.send("late");
+        fail("Sending on a closed channel should fail");
+      } catch (IllegalStateException e) {
+        testComplete();
+      }
+    });
+    waitFor();
+  }
+}
@@ -0,0 +1,80 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.core.impl.VertxInternal;
+import io.vertx.lang.loom.Async;
+import io.vertx.loom.core.Vertx;
+
+public class DispatchTest extends AbstactAsyncLoomTest {
+
+  @Test
+  public void testDispatchRunsInlineOnVirtualThread() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      expectLoomThread();
+      Thread current = Thread.currentThread();
+      Async.dispatch(() -> {
+        assertSame("The handler should not be dispatched again", current, Thread.currentThread());
+        testComplete();
+      });
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testDispatchFromEventLoop() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      expectEventloopThread();
+      Thread current = Thread.currentThread();
+      Async.dispatch(() -> {
+        expectLoomThread();
+        assertNotSame(current, Thread.currentThread());
+        testComplete();
+      });
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testEventOfAnotherContextIsNotRunInline() {
+    Vertx vertx = Vertx.vertx();
+    VertxInternal core = (VertxInternal) vertx.getDelegate();
+    ContextInternal registering = core.createEventLoopContext();
+    ContextInternal firing = core.createEventLoopContext();
+    firing.runOnContext(v -> Async.async(() -> {
+      Thread current = Thread.currentThread();
+      // The handler of the registering context is emitted synchronously on the virtual thread of the firing context
+      registering.emit(null, event -> Async.dispatch(() -> {
+        expectLoomThread();
+        assertNotSame("The handler should not block the thread which fired the event", current, Thread.currentThread());
+        assertSame("The handler should run on the context which emitted the event", registering,
+          ((ContextInternal) Async.currentVertxContext()).unwrap());
+        testComplete();
+      }));
+      return null;
+    }));
+    waitFor();
+  }
+
+  @Test
+  public void testInlineFailureIsReportedToContext() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().exceptionHandler(err -> {
+      if ("inline".equals(err.getMessage())) {
+        testComplete();
+      }
+    });
+    vertx.runOnContext(v -> {
+      Async.dispatch(() -> {
+        throw new IllegalStateException("inline");
+      });
+    });
+    waitFor();
+  }
+}
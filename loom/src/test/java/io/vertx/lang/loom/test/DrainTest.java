@@ -0,0 +1,68 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AsyncOptions;
+import io.vertx.loom.core.Vertx;
+
+public class DrainTest extends AbstactAsyncLoomTest {
+
+  @After
+  public void resetOptions() {
+    Async.configure(new AsyncOptions());
+  }
+
+  @Test
+  public void testUndeployDrainsInflightThreads() {
+    AtomicBoolean finished = new AtomicBoolean();
+    Async.configure(new AsyncOptions().setDrainTimeout(5000).setDrainHandler(stats -> {
+      assertEquals(1, stats.drained());
+      assertEquals(0, stats.interrupted());
+      assertTrue("The in-flight thread should have finished", finished.get());
+      testComplete();
+    }));
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().deployVerticle(new io.vertx.core.AbstractVerticle() {
+      @Override
+      public void start() {
+        Async.async(() -> {
+          Thread.sleep(500);
+          finished.set(true);
+          return null;
+        });
+      }
+    }, onSuccess(deploymentId -> {
+      vertx.getDelegate().undeploy(deploymentId);
+    }));
+    waitFor();
+  }
+
+  @Test
+  public void testUndeployInterruptsStragglers() {
+    Async.configure(new AsyncOptions().setDrainTimeout(100).setDrainHandler(stats -> {
+      assertEquals(0, stats.drained());
+      assertEquals(1, stats.interrupted());
+      testComplete();
+    }));
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().deployVerticle(new io.vertx.core.AbstractVerticle() {
+      @Override
+      public void start() {
+        Async.async(() -> {
+          Thread.sleep(60_000);
+          return null;
+        });
+      }
+    }, onSuccess(deploymentId -> {
+      vertx.getDelegate().undeploy(deploymentId);
+    }));
+    waitFor();
+  }
+}
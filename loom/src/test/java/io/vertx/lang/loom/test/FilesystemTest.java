@@ -1,13 +1,19 @@
 package io.vertx.lang.loom.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.Test;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.loom.core.Vertx;
+import io.vertx.loom.core.file.BlockingFiles;
 import io.vertx.loom.core.file.FileSystem;
 
 public class FilesystemTest extends AbstactAsyncLoomTest {
@@ -38,4 +44,66 @@ public class FilesystemTest extends AbstactAsyncLoomTest {
     }));
     waitFor();
   }
+
+  @Test
+  public void testExistsAwait() throws IOException {
+    File tempFile = File.createTempFile("vertx-test-", ".tmp");
+    tempFile.deleteOnExit();
+    Vertx vertx = Vertx.vertx();
+    FileSystem fs = vertx.fileSystem();
+    vertx.runOnContext(v -> {
+      assertTrue("File should exist", fs.existsAwait(tempFile.getAbsolutePath()));
+      fs.deleteAwait(tempFile.getAbsolutePath());
+      assertFalse("File should be deleted", fs.existsAwait(tempFile.getAbsolutePath()));
+      expectLoomThread();
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testBlockingReadAndMap() throws IOException {
+    File tempFile = File.createTempFile("vertx-test-", ".tmp");
+    tempFile.deleteOnExit();
+    Files.writeString(tempFile.toPath(), "0123456789");
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      try (BlockingFiles.PooledBuffer region = BlockingFiles.read(tempFile.getAbsolutePath(), 2, 5)) {
+        assertEquals("23456", region.buffer().toString(StandardCharsets.UTF_8));
+      }
+      try (BlockingFiles.PooledBuffer tail = BlockingFiles.read(tempFile.getAbsolutePath(), 8, 5)) {
+        assertEquals("The read should stop at the end of the file", 2, tail.length());
+      }
+      assertEquals("0123456789", BlockingFiles.map(tempFile.getAbsolutePath()).toString(StandardCharsets.UTF_8));
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testBlockingWriteAndCopy() throws IOException {
+    File source = File.createTempFile("vertx-test-", ".tmp");
+    File target = File.createTempFile("vertx-test-", ".tmp");
+    source.deleteOnExit();
+    target.deleteOnExit();
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      BlockingFiles.write(source.getAbsolutePath(), Buffer.buffer("content"));
+      assertEquals(7, BlockingFiles.copy(source.getAbsolutePath(), target.getAbsolutePath()));
+      try {
+        assertEquals("content", Files.readString(target.toPath()));
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBlockingFilesNeedVirtualThread() throws IOException {
+    File tempFile = File.createTempFile("vertx-test-", ".tmp");
+    tempFile.deleteOnExit();
+    BlockingFiles.map(tempFile.getAbsolutePath());
+  }
 }
@@ -0,0 +1,94 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vertx.lang.loom.hedge.HedgeOptions;
+import io.vertx.lang.loom.hedge.Hedger;
+import io.vertx.lang.loom.hedge.LatencyHistogram;
+import io.vertx.loom.core.Vertx;
+
+public class HedgeTest extends AbstactAsyncLoomTest {
+
+  private static void warmUp(Hedger hedger, int calls) {
+    for (int i = 0; i < calls; i++) {
+      hedger.await("op", () -> {
+        Thread.sleep(5);
+        return "warm";
+      });
+    }
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram(100_000);
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertEquals(1000, histogram.count());
+    long p50 = histogram.valueAtPercentile(50);
+    long p99 = histogram.valueAtPercentile(99);
+    assertTrue("p50 was " + p50, p50 >= 500 && p50 <= 500 * 17 / 16);
+    assertTrue("p99 was " + p99, p99 >= 990 && p99 <= 990 * 17 / 16);
+  }
+
+  @Test
+  public void testSlowCallIsHedged() {
+    Vertx vertx = Vertx.vertx();
+    Hedger hedger = new Hedger(new HedgeOptions().setMinSamples(10).setPercentile(90).setMinDelay(20));
+    AtomicInteger attempts = new AtomicInteger();
+    AtomicBoolean loserInterrupted = new AtomicBoolean();
+    vertx.runOnContext(v -> {
+      warmUp(hedger, 20);
+      assertEquals("Fast calls should not be hedged", 0, hedger.hedges());
+      long start = System.currentTimeMillis();
+      String result = hedger.await("op", () -> {
+        if (attempts.incrementAndGet() == 1) {
+          try {
+            Thread.sleep(2000);
+          } catch (InterruptedException e) {
+            loserInterrupted.set(true);
+            throw e;
+          }
+          return "primary";
+        }
+        Thread.sleep(5);
+        return "backup";
+      });
+      assertEquals("backup", result);
+      assertEquals(1, hedger.hedges());
+      assertTrue("The hedged call should not wait for the slow one", System.currentTimeMillis() - start < 1000);
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      assertTrue("The thread of the slow call should have been interrupted", loserInterrupted.get());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testBudgetLimitsHedges() {
+    Vertx vertx = Vertx.vertx();
+    Hedger hedger = new Hedger(new HedgeOptions().setMinSamples(10).setMinDelay(20).setBudgetRatio(0).setBudgetBurst(1));
+    vertx.runOnContext(v -> {
+      warmUp(hedger, 20);
+      for (int i = 0; i < 3; i++) {
+        hedger.await("op", () -> {
+          Thread.sleep(50);
+          return "slow";
+        });
+      }
+      assertEquals("The budget should allow a single hedge", 1, hedger.hedges());
+      testComplete();
+    });
+    waitFor();
+  }
+}
@@ -0,0 +1,98 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Test;
+
+import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.lang.loom.Async;
+import io.vertx.loom.core.Vertx;
+import io.vertx.loom.kafka.client.consumer.KafkaConsumerLoop;
+import io.vertx.loom.kafka.client.consumer.KafkaConsumerLoopOptions;
+
+public class KafkaConsumerLoopTest extends AbstactAsyncLoomTest {
+
+  private static final String TOPIC = "orders";
+  private static final TopicPartition P0 = new TopicPartition(TOPIC, 0);
+  private static final TopicPartition P1 = new TopicPartition(TOPIC, 1);
+
+  private MockConsumer<String, String> mockConsumer(int recordsPerPartition) {
+    MockConsumer<String, String> mock = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+    mock.assign(List.of(P0, P1));
+    mock.updateBeginningOffsets(Map.of(P0, 0L, P1, 0L));
+    for (int i = 0; i < recordsPerPartition; i++) {
+      mock.addRecord(new ConsumerRecord<>(TOPIC, 0, i, "key-" + i, "value-" + i));
+      mock.addRecord(new ConsumerRecord<>(TOPIC, 1, i, "key-" + i, "value-" + i));
+    }
+    return mock;
+  }
+
+  @Test
+  public void testPartitionsAreProcessedInOrderAndCommitted() {
+    Vertx vertx = Vertx.vertx();
+    MockConsumer<String, String> mock = mockConsumer(50);
+    KafkaConsumerLoop<String, String> loop = new KafkaConsumerLoop<>(KafkaConsumer.create(vertx.getDelegate(), mock),
+      new KafkaConsumerLoopOptions().setPollTimeout(10).setCommitBatchSize(20));
+    Map<Integer, List<Long>> seen = new ConcurrentHashMap<>();
+    AtomicInteger processed = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      loop.run(record -> {
+        expectLoomThread();
+        seen.computeIfAbsent(record.partition(), p -> new CopyOnWriteArrayList<>()).add(record.offset());
+        if (processed.incrementAndGet() == 100) {
+          loop.stop();
+        }
+      });
+      for (List<Long> offsets : seen.values()) {
+        assertEquals(50, offsets.size());
+        for (int i = 0; i < offsets.size(); i++) {
+          assertEquals(i, (long) offsets.get(i));
+        }
+      }
+      Map<TopicPartition, OffsetAndMetadata> committed = mock.committed(Set.of(P0, P1));
+      assertEquals(50, committed.get(P0).offset());
+      assertEquals(50, committed.get(P1).offset());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testSlowPartitionIsPaused() {
+    Vertx vertx = Vertx.vertx();
+    MockConsumer<String, String> mock = mockConsumer(20);
+    KafkaConsumerLoop<String, String> loop = new KafkaConsumerLoop<>(KafkaConsumer.create(vertx.getDelegate(), mock),
+      new KafkaConsumerLoopOptions().setPollTimeout(10).setMaxPendingRecords(10));
+    AtomicBoolean paused = new AtomicBoolean();
+    AtomicInteger processed = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      loop.run(record -> {
+        Thread.sleep(5);
+        if (mock.paused().contains(new TopicPartition(TOPIC, record.partition()))) {
+          paused.set(true);
+        }
+        if (processed.incrementAndGet() == 40) {
+          loop.stop();
+        }
+      });
+      assertTrue("The partitions should have been paused while their records were pending", paused.get());
+      assertTrue("The partitions should have been resumed", mock.paused().isEmpty());
+      testComplete();
+    });
+    waitFor();
+  }
+}
@@ -0,0 +1,119 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.lang.loom.keyed.KeyedExecutor;
+import io.vertx.loom.core.Vertx;
+import io.vertx.loom.core.eventbus.EventBus;
+import io.vertx.loom.core.eventbus.Message;
+
+public class KeyedExecutorTest extends AbstactAsyncLoomTest {
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  public void testTasksOfKeyRunInOrder() {
+    Vertx vertx = Vertx.vertx();
+    KeyedExecutor<Integer> executor = new KeyedExecutor<>();
+    Map<Integer, List<Integer>> submitted = new ConcurrentHashMap<>();
+    Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+    Map<Integer, AtomicInteger> runningPerKey = new ConcurrentHashMap<>();
+    AtomicInteger maxRunningPerKey = new AtomicInteger();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    vertx.getDelegate().runOnContext(v -> {
+      List<Future> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        int key = i % 4;
+        int seq = i;
+        submitted.computeIfAbsent(key, k -> new ArrayList<>()).add(seq);
+        results.add(executor.submit(key, () -> {
+          AtomicInteger runningOfKey = runningPerKey.computeIfAbsent(key, k -> new AtomicInteger());
+          maxRunningPerKey.accumulateAndGet(runningOfKey.incrementAndGet(), Math::max);
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          sleep(ThreadLocalRandom.current().nextInt(3));
+          seen.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(seq);
+          running.decrementAndGet();
+          runningOfKey.decrementAndGet();
+          return seq;
+        }));
+      }
+      CompositeFuture.all(results).onComplete(onSuccess(all -> {
+        assertEquals(4, seen.size());
+        for (Map.Entry<Integer, List<Integer>> order : seen.entrySet()) {
+          assertEquals("The tasks of a key should run in submission order", submitted.get(order.getKey()), order.getValue());
+        }
+        assertEquals("At most one task per key should run at a time", 1, maxRunningPerKey.get());
+        assertTrue("Different keys should run in parallel", maxRunning.get() > 1);
+        vertx.setTimer(10, id -> {
+          assertEquals("Idle keys should have been removed", 0, executor.activeKeys());
+          testComplete();
+        });
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testFailureDoesNotBlockKey() {
+    Vertx vertx = Vertx.vertx();
+    KeyedExecutor<String> executor = new KeyedExecutor<>();
+    vertx.getDelegate().runOnContext(v -> {
+      Future<String> failed = executor.submit("key", () -> {
+        throw new IllegalStateException("boom");
+      });
+      executor.submit("key", () -> "next").onComplete(onSuccess(result -> {
+        assertTrue(failed.failed());
+        assertEquals("next", result);
+        testComplete();
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testConsumerKeepsOrderPerKey() {
+    Vertx vertx = Vertx.vertx();
+    EventBus eb = vertx.eventBus();
+    KeyedExecutor<String> executor = new KeyedExecutor<>();
+    Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+    AtomicInteger received = new AtomicInteger();
+    eb.<JsonObject>consumer("orders").handler(executor.handler(msg -> msg.body().getString("id"), (Message<JsonObject> msg) -> {
+      expectLoomThread();
+      sleep(ThreadLocalRandom.current().nextInt(3));
+      seen.computeIfAbsent(msg.body().getString("id"), k -> new CopyOnWriteArrayList<>()).add(msg.body().getInteger("seq"));
+      if (received.incrementAndGet() == 100) {
+        for (List<Integer> order : seen.values()) {
+          for (int i = 1; i < order.size(); i++) {
+            assertTrue("The messages of an id should be handled in order: " + order, order.get(i - 1) < order.get(i));
+          }
+        }
+        testComplete();
+      }
+    }));
+    for (int i = 0; i < 100; i++) {
+      eb.send("orders", new JsonObject().put("id", "order-" + (i % 3)).put("seq", i));
+    }
+    waitFor();
+  }
+}
@@ -0,0 +1,164 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.resilience.Bulkhead;
+import io.vertx.lang.loom.resilience.CircuitBreaker;
+import io.vertx.lang.loom.resilience.CircuitBreakerOptions;
+import io.vertx.loom.core.Vertx;
+
+public class ResilienceTest extends AbstactAsyncLoomTest {
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  public void testBulkheadRejectsWithoutParking() {
+    Vertx vertx = Vertx.vertx();
+    Bulkhead bulkhead = new Bulkhead(2);
+    vertx.runOnContext(v -> {
+      Promise<String> gate = Promise.promise();
+      Future<String> first = Async.async(() -> bulkhead.await(gate::future));
+      Future<String> second = Async.async(() -> bulkhead.await(gate::future));
+      Future<String> third = Async.async(() -> bulkhead.await(gate::future));
+      try {
+        Async.await(third);
+        fail("The third call should have been rejected");
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+      }
+      assertEquals(2, bulkhead.inFlight());
+      assertEquals(1, bulkhead.rejected());
+      gate.complete("done");
+      assertEquals("done", Async.await(first));
+      assertEquals("done", Async.await(second));
+      assertEquals(0, bulkhead.inFlight());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testBreakerOpensOnFailures() {
+    Vertx vertx = Vertx.vertx();
+    CircuitBreaker breaker = new CircuitBreaker(new CircuitBreakerOptions()
+      .setMinimumCalls(4)
+      .setFailureRateThreshold(50)
+      .setOpenDuration(100)
+      .setHalfOpenCalls(1));
+    vertx.runOnContext(v -> {
+      for (int i = 0; i < 4; i++) {
+        try {
+          breaker.call(() -> {
+            throw new IllegalStateException("down");
+          });
+          fail("The call should have failed");
+        } catch (IllegalStateException e) {
+          // Expected
+        }
+      }
+      assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+      AtomicBoolean invoked = new AtomicBoolean();
+      try {
+        breaker.call(() -> invoked.getAndSet(true));
+        fail("The open breaker should reject the call");
+      } catch (RejectedExecutionException e) {
+        assertFalse("A rejected call should not be invoked", invoked.get());
+      }
+
+      sleep(150);
+      assertEquals("ok", breaker.call(() -> "ok"));
+      assertEquals("The successful trial call should close the breaker", CircuitBreaker.State.CLOSED, breaker.state());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testLateFailuresDoNotExtendTheOpenDuration() {
+    Vertx vertx = Vertx.vertx();
+    CircuitBreaker breaker = new CircuitBreaker(new CircuitBreakerOptions()
+      .setMinimumCalls(4)
+      .setFailureRateThreshold(50)
+      .setOpenDuration(200)
+      .setHalfOpenCalls(1));
+    vertx.runOnContext(v -> {
+      // Calls which are admitted while the breaker is closed and still in flight when it opens
+      Promise<String> gate = Promise.promise();
+      Promise<Void> admitted = Promise.promise();
+      AtomicInteger started = new AtomicInteger();
+      List<Future> inFlight = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        inFlight.add(Async.async(() -> breaker.await(() -> {
+          if (started.incrementAndGet() == 10) {
+            admitted.complete();
+          }
+          return gate.future();
+        })));
+      }
+      Async.await(admitted.future());
+      for (int i = 0; i < 4; i++) {
+        try {
+          breaker.call(() -> {
+            throw new IllegalStateException("down");
+          });
+          fail("The call should have failed");
+        } catch (IllegalStateException e) {
+          // Expected
+        }
+      }
+      assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+      sleep(120);
+      gate.fail(new IllegalStateException("down"));
+      Async.await(CompositeFuture.join(inFlight).otherwiseEmpty());
+      sleep(120);
+      assertEquals("The late failures should not have extended the open duration", "ok", breaker.call(() -> "ok"));
+      assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testBreakerOpensOnSlowCalls() {
+    Vertx vertx = Vertx.vertx();
+    CircuitBreaker breaker = new CircuitBreaker(new CircuitBreakerOptions()
+      .setMinimumCalls(2)
+      .setSlowCallDuration(10)
+      .setSlowCallRateThreshold(50));
+    vertx.runOnContext(v -> {
+      for (int i = 0; i < 2; i++) {
+        breaker.call(() -> {
+          Thread.sleep(20);
+          return null;
+        });
+      }
+      assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+      assertEquals(0, breaker.rejected());
+      testComplete();
+    });
+    waitFor();
+  }
+}
@@ -0,0 +1,187 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import io.vertx.core.Promise;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AwaitCancelledException;
+import io.vertx.lang.loom.FlowableIterator;
+import io.vertx.loom.core.Vertx;
+import io.vertx.loom.rxjava3.LoomFlowable;
+
+public class RxTest extends AbstactAsyncLoomTest {
+
+  @Test
+  public void testAwaitMaybe() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      assertEquals("value", Async.await(Maybe.just("value").delay(10, TimeUnit.MILLISECONDS)));
+      assertNull(Async.await(Maybe.<String>empty().delay(10, TimeUnit.MILLISECONDS)));
+      try {
+        Async.await(Maybe.error(new IllegalStateException("failed")).delay(10, TimeUnit.MILLISECONDS));
+        fail("The await should have failed");
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      expectLoomThread();
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testAwaitCompletable() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      Async.await(Completable.timer(10, TimeUnit.MILLISECONDS));
+      try {
+        Async.await(Completable.error(new IllegalStateException("failed")).delay(10, TimeUnit.MILLISECONDS, true));
+        fail("The await should have failed");
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      expectLoomThread();
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testAwaitFailedSingle() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      try {
+        Async.await(Single.error(new IllegalStateException("failed")).delay(10, TimeUnit.MILLISECONDS, true));
+        fail("The await should have failed");
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      // The thread can still await after a failure
+      assertEquals("value", Async.await(Single.just("value").delay(10, TimeUnit.MILLISECONDS)));
+      expectLoomThread();
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testInterruptDisposesSingle() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      AtomicBoolean disposed = new AtomicBoolean();
+      Thread thread = Async.async(() -> {
+        try {
+          Async.await(Single.never().doOnDispose(() -> disposed.set(true)));
+          fail("The await should have been interrupted");
+        } catch (AwaitCancelledException e) {
+          assertTrue(e.getCause() instanceof InterruptedException);
+          assertTrue("The interrupt status should have been restored", Thread.currentThread().isInterrupted());
+          assertTrue("The subscription should have been disposed", disposed.get());
+          testComplete();
+        }
+      });
+      vertx.getDelegate().setTimer(50, id -> thread.interrupt());
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testIterateFlowableWithBackpressure() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      AtomicLong requested = new AtomicLong();
+      AtomicLong emitted = new AtomicLong();
+      Flowable<Integer> flowable = Flowable.range(0, 1000)
+        .doOnRequest(requested::addAndGet)
+        .doOnNext(i -> emitted.incrementAndGet());
+      int expected = 0;
+      try (FlowableIterator<Integer> it = Async.iterate(flowable, 16)) {
+        while (it.hasNext()) {
+          int item = it.next();
+          assertEquals(expected++, item);
+          assertTrue("Too many items are buffered", emitted.get() - expected <= 16);
+        }
+      }
+      assertEquals(1000, expected);
+      assertTrue(requested.get() >= 1000);
+      expectLoomThread();
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testIterateFlowableError() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      FlowableIterator<Integer> it = Async.iterate(Flowable.just(1).concatWith(Flowable.error(new IllegalStateException("failed"))));
+      assertEquals(1, (int) it.next());
+      try {
+        it.hasNext();
+        fail("The iteration should have failed");
+      } catch (RuntimeException e) {
+        assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testFromBlocking() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      LoomFlowable.fromBlocking(() -> {
+        expectLoomThread();
+        Promise<Void> timer = Promise.promise();
+        vertx.getDelegate().setTimer(10, id -> timer.complete());
+        Async.await(timer.future());
+        return "produced";
+      }).toList().subscribe(items -> {
+        assertEquals(1, items.size());
+        assertEquals("produced", items.get(0));
+        testComplete();
+      });
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testFromBlockingEmpty() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      LoomFlowable.fromBlocking(() -> null).isEmpty().subscribe(empty -> {
+        assertTrue(empty);
+        testComplete();
+      });
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testCloseCancelsUpstream() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      AtomicLong cancelled = new AtomicLong();
+      FlowableIterator<Long> it = Async.iterate(Flowable.interval(1, TimeUnit.MILLISECONDS).doOnCancel(cancelled::incrementAndGet), 4);
+      assertEquals(0L, (long) it.next());
+      it.close();
+      assertEquals(1, cancelled.get());
+      testComplete();
+    });
+    waitFor();
+  }
+}
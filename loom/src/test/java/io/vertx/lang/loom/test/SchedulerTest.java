@@ -0,0 +1,79 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AsyncOptions;
+import io.vertx.loom.core.Vertx;
+
+public class SchedulerTest extends AbstactAsyncLoomTest {
+
+  @After
+  public void resetOptions() {
+    Async.configure(new AsyncOptions());
+  }
+
+  @Test
+  public void testContinuationsRunInBatches() {
+    Async.configure(new AsyncOptions().setSchedulerBatchSize(2));
+    Vertx vertx = Vertx.vertx();
+    AtomicInteger started = new AtomicInteger();
+    vertx.getDelegate().runOnContext(v -> {
+      List<Future> results = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        results.add(Async.async(() -> {
+          started.incrementAndGet();
+          return null;
+        }));
+      }
+      // Queued behind the first batch, the remaining continuations are submitted again behind this task
+      vertx.getDelegate().runOnContext(v2 -> {
+        assertEquals(2, started.get());
+        assertEquals(8, Async.stats().queued());
+        CompositeFuture.all(results).onComplete(onSuccess(all -> {
+          assertEquals(10, started.get());
+          testComplete();
+        }));
+      });
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testContinuationIsNotRunInline() {
+    Async.configure(new AsyncOptions().setSchedulerBatchSize(0));
+    Vertx vertx = Vertx.vertx();
+    AtomicBoolean resumed = new AtomicBoolean();
+    vertx.getDelegate().runOnContext(v -> {
+      Promise<Void> promise = Promise.promise();
+      Async.async(() -> {
+        Async.await(promise.future());
+        resumed.set(true);
+        return null;
+      });
+      // Let the virtual thread park first
+      vertx.getDelegate().setTimer(10, id -> {
+        promise.complete();
+        assertFalse("The continuation should be enqueued, not run within complete()", resumed.get());
+        vertx.getDelegate().runOnContext(v2 -> {
+          assertTrue(resumed.get());
+          testComplete();
+        });
+      });
+    });
+    waitFor();
+  }
+}
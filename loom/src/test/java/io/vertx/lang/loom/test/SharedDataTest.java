@@ -0,0 +1,106 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.vertx.core.Promise;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.shareddata.BlockingCounter;
+import io.vertx.lang.loom.shareddata.BlockingLock;
+import io.vertx.lang.loom.shareddata.BlockingMap;
+import io.vertx.lang.loom.shareddata.BlockingSharedData;
+import io.vertx.loom.core.Vertx;
+import io.vertx.test.fakecluster.FakeClusterManager;
+
+public class SharedDataTest extends AbstactAsyncLoomTest {
+
+  @Test
+  public void testLocal() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      assertSharedData(BlockingSharedData.create(vertx.getDelegate()));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testClustered() {
+    io.vertx.core.Vertx.clusteredVertx(new VertxOptions().setClusterManager(new FakeClusterManager()), onSuccess(delegate -> {
+      Vertx vertx = new Vertx(delegate);
+      vertx.runOnContext(v -> {
+        assertSharedData(BlockingSharedData.create(delegate));
+      });
+    }));
+    waitFor();
+  }
+
+  @Test
+  public void testLocalMapIsSharedWithAsyncApi() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      BlockingMap<String, String> map = BlockingSharedData.create(vertx.getDelegate()).map("shared");
+      AsyncMap<String, String> asyncMap = Async.await(vertx.getDelegate().sharedData().<String, String>getLocalAsyncMap("shared"));
+      Async.await(asyncMap.put("async", "value"));
+      assertEquals("value", map.get("async"));
+      map.put("ttl", "value", 50);
+      assertEquals("value", Async.await(asyncMap.get("ttl")));
+      Promise<Void> expired = Promise.promise();
+      vertx.getDelegate().setTimer(200, id -> expired.complete());
+      Async.await(expired.future());
+      assertNull("The entry should have expired", map.get("ttl"));
+      testComplete();
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testLockIsHeldAcrossBlockingCode() {
+    Vertx vertx = Vertx.vertx();
+    vertx.runOnContext(v -> {
+      BlockingSharedData sd = BlockingSharedData.create(vertx.getDelegate());
+      AtomicInteger inside = new AtomicInteger();
+      AtomicInteger done = new AtomicInteger();
+      for (int i = 0; i < 10; i++) {
+        Async.async(() -> {
+          try (BlockingLock lock = sd.lock("lock")) {
+            assertEquals("Only one thread should hold the lock", 1, inside.incrementAndGet());
+            Thread.sleep(10);
+            inside.decrementAndGet();
+          }
+          if (done.incrementAndGet() == 10) {
+            testComplete();
+          }
+          return null;
+        });
+      }
+    });
+    waitFor();
+  }
+
+  private void assertSharedData(BlockingSharedData sd) {
+    expectLoomThread();
+    BlockingCounter counter = sd.counter("counter");
+    assertEquals(1, counter.incrementAndGet());
+    assertEquals(11, counter.addAndGet(10));
+    assertEquals(11, sd.counter("counter").get());
+
+    BlockingMap<String, String> map = sd.map("map");
+    assertNull(map.get("key"));
+    map.put("key", "value");
+    assertEquals("value", map.get("key"));
+    assertEquals("value", map.putIfAbsent("key", "other"));
+    assertEquals(1, map.size());
+    assertEquals("value", map.remove("key"));
+
+    try (BlockingLock lock = sd.lock("lock", 1000)) {
+      expectLoomThread();
+    }
+    testComplete();
+  }
+}
@@ -0,0 +1,77 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AsyncOptions;
+import io.vertx.lang.loom.AsyncStats;
+import io.vertx.loom.core.Vertx;
+
+public class ThrottleTest extends AbstactAsyncLoomTest {
+
+  @After
+  public void resetOptions() {
+    Async.configure(new AsyncOptions());
+  }
+
+  @Test
+  public void testThrottleOnEventLoopLag() {
+    Async.configure(new AsyncOptions().setThrottleTargetLag(5).setThrottleMinLimit(1).setThrottleMaxLimit(2));
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().deployVerticle(new io.vertx.core.AbstractVerticle() {
+      @Override
+      public void start() {
+        assertEquals(2, Async.stats().limit());
+        // Block the event loop so that the lag probe runs late
+        vertx.setTimer(20, id -> {
+          try {
+            Thread.sleep(200);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+        // Due during the block, runs after the late probe
+        vertx.setTimer(30, id -> {
+          AsyncStats stats = Async.stats();
+          assertEquals(1, stats.limit());
+          assertTrue("The lag should have been measured, got " + stats.eventLoopLagMillis(), stats.eventLoopLagMillis() > 5);
+          Async.async(() -> {
+            Thread.sleep(1000);
+            return null;
+          });
+          io.vertx.core.Future<Object> rejected = Async.async(() -> null);
+          assertTrue("The launch should have been rejected", rejected.failed());
+          assertTrue(rejected.cause() instanceof RejectedExecutionException);
+          // The limit recovers once the event loop is responsive again
+          vertx.setTimer(100, id2 -> {
+            assertEquals(2, Async.stats().limit());
+            Async.async(() -> null).onComplete(onSuccess(v -> testComplete()));
+          });
+        });
+      }
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testStatsWithoutThrottling() {
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().deployVerticle(new io.vertx.core.AbstractVerticle() {
+      @Override
+      public void start() {
+        AsyncStats stats = Async.stats();
+        assertEquals(0, stats.inFlight());
+        assertEquals(-1, stats.limit());
+        assertEquals(-1, stats.eventLoopLagMillis());
+        testComplete();
+      }
+    });
+    waitFor();
+  }
+}
@@ -0,0 +1,104 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.Ticker;
+import io.vertx.lang.loom.Ticker.OverrunPolicy;
+import io.vertx.loom.core.Vertx;
+
+public class TickerTest extends AbstactAsyncLoomTest {
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  public void testTicksRunOnOneThread() {
+    Vertx vertx = Vertx.vertx();
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    AtomicReference<Ticker> ticker = new AtomicReference<>();
+    vertx.getDelegate().runOnContext(v -> {
+      ticker.set(Async.ticker(10, OverrunPolicy.COALESCE, id -> {
+        expectLoomThread();
+        threads.add(Thread.currentThread());
+        if (ticker.get().runs() == 5) {
+          ticker.get().cancel();
+          assertEquals("The ticks should not create a thread each", 1, threads.size());
+          testComplete();
+        }
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testCoalesceOverruns() {
+    Vertx vertx = Vertx.vertx();
+    AtomicReference<Ticker> ticker = new AtomicReference<>();
+    AtomicInteger running = new AtomicInteger();
+    vertx.getDelegate().runOnContext(v -> {
+      ticker.set(Async.ticker(10, OverrunPolicy.COALESCE, id -> {
+        assertEquals("Runs should never overlap", 1, running.incrementAndGet());
+        sleep(35);
+        running.decrementAndGet();
+        Ticker t = ticker.get();
+        if (t.runs() == 3) {
+          t.cancel();
+          assertTrue("Overrun ticks should have been merged", t.missed() >= 2);
+          assertTrue("The lateness should have been measured", t.maxLatenessMillis() >= 20);
+          testComplete();
+        }
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testCatchUpRunsEveryTick() {
+    Vertx vertx = Vertx.vertx();
+    AtomicReference<Ticker> ticker = new AtomicReference<>();
+    vertx.getDelegate().runOnContext(v -> {
+      ticker.set(Async.ticker(10, OverrunPolicy.CATCH_UP, id -> {
+        Ticker t = ticker.get();
+        if (t.runs() == 1) {
+          sleep(50);
+        } else if (t.runs() == 6) {
+          t.cancel();
+          assertEquals(0, t.missed());
+          testComplete();
+        }
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testCancelStopsTicks() {
+    Vertx vertx = Vertx.vertx();
+    AtomicInteger runs = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      Ticker ticker = Async.ticker(5, OverrunPolicy.SKIP, id -> runs.incrementAndGet());
+      sleep(30);
+      assertTrue(ticker.cancel());
+      int stopped = runs.get();
+      sleep(30);
+      // A run which already started when the ticker was cancelled still completes
+      assertTrue("No tick should run after the cancel", runs.get() <= stopped + 1);
+      testComplete();
+    });
+    waitFor();
+  }
+}
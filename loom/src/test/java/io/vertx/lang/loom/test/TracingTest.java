@@ -0,0 +1,139 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.spi.VertxTracerFactory;
+import io.vertx.core.spi.tracing.SpanKind;
+import io.vertx.core.spi.tracing.TagExtractor;
+import io.vertx.core.spi.tracing.VertxTracer;
+import io.vertx.core.tracing.TracingOptions;
+import io.vertx.core.tracing.TracingPolicy;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AsyncOptions;
+import io.vertx.lang.loom.tracing.InMemoryAsyncTracer;
+import io.vertx.lang.loom.tracing.InMemoryAsyncTracer.Span;
+import io.vertx.lang.loom.tracing.VertxTracerAdapter;
+import io.vertx.loom.core.Vertx;
+
+public class TracingTest extends AbstactAsyncLoomTest {
+
+  @After
+  public void resetOptions() {
+    Async.configure(new AsyncOptions());
+  }
+
+  @Test
+  public void testAwaitSpans() {
+    Promise<Void> ended = Promise.promise();
+    InMemoryAsyncTracer tracer = new InMemoryAsyncTracer() {
+      @Override
+      public void end(Span span, Throwable failure) {
+        super.end(span, failure);
+        if (finishedSpans().size() == 2) {
+          ended.complete();
+        }
+      }
+    };
+    Async.configure(new AsyncOptions().setTracer(tracer));
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      Future<String> outer = Async.async(() -> {
+        Promise<String> promise = Promise.promise();
+        return Async.await(Async.async(() -> {
+          // The timer is set by the thread which awaits it, so the thread parks for about the whole delay
+          vertx.getDelegate().setTimer(200, t -> promise.complete("nested"));
+          return Async.await(promise.future());
+        }));
+      });
+      // The outer span ends after the completion of its future
+      CompositeFuture.all(outer, ended.future()).onComplete(onSuccess(all -> {
+        assertEquals("nested", outer.result());
+        List<Span> spans = tracer.finishedSpans();
+        assertEquals(2, spans.size());
+        Span inner = spans.get(0);
+        Span root = spans.get(1);
+        assertNull(root.parentSpanId());
+        assertEquals(root.spanId(), inner.parentSpanId());
+        assertEquals(root.traceId(), inner.traceId());
+        assertEquals(1, inner.events().size());
+        assertTrue("The inner thread should have been parked for the timer", inner.parkedNanos() >= 150_000_000L);
+        assertFalse(tracer.awaitSites().isEmpty());
+        assertTrue(tracer.awaitSites().get(0).site().startsWith(TracingTest.class.getName()));
+        testComplete();
+      }));
+    });
+    waitFor();
+  }
+
+  @Test
+  public void testVertxTracerAdapter() {
+    List<String> reported = new CopyOnWriteArrayList<>();
+    Promise<Void> received = Promise.promise();
+    VertxTracer<Object, Object> vertxTracer = new VertxTracer<>() {
+      @Override
+      public <R> Object sendRequest(Context context, SpanKind kind, TracingPolicy policy, R request, String operation,
+        BiConsumer<String, String> headers, TagExtractor<R> tagExtractor) {
+        reported.add("send " + operation);
+        return "payload";
+      }
+
+      @Override
+      public <R> void receiveResponse(Context context, R response, Object payload, Throwable failure, TagExtractor<R> tagExtractor) {
+        reported.add("receive " + payload);
+        received.complete();
+      }
+    };
+    Async.configure(new AsyncOptions().setTracer(new VertxTracerAdapter()));
+    io.vertx.core.Vertx vertx = io.vertx.core.Vertx.vertx(new VertxOptions().setTracingOptions(new TracingOptions().setFactory(new VertxTracerFactory() {
+      @Override
+      public VertxTracer tracer(TracingOptions options) {
+        return vertxTracer;
+      }
+    })));
+    vertx.runOnContext(v -> {
+      Async.async(() -> "done");
+      received.future().onComplete(onSuccess(r -> {
+        assertEquals(List.of("send virtual-thread", "receive payload"), reported);
+        testComplete();
+      }));
+    });
+    waitFor();
+    vertx.close();
+  }
+
+  @Test
+  public void testRejectedLaunchEndsSpan() {
+    InMemoryAsyncTracer tracer = new InMemoryAsyncTracer();
+    Async.configure(new AsyncOptions().setTracer(tracer).setThrottleTargetLag(1000).setThrottleMinLimit(1).setThrottleMaxLimit(1));
+    Vertx vertx = Vertx.vertx();
+    vertx.getDelegate().runOnContext(v -> {
+      Promise<Void> gate = Promise.promise();
+      Future<Void> running = Async.async(() -> Async.await(gate.future()));
+      Future<Object> rejected = Async.async(() -> null);
+      assertTrue("The launch should have been rejected", rejected.failed());
+      List<Span> spans = tracer.finishedSpans();
+      assertEquals(1, spans.size());
+      assertTrue(spans.get(0).failure() instanceof RejectedExecutionException);
+      gate.complete();
+      running.onComplete(onSuccess(r -> testComplete()));
+    });
+    waitFor();
+  }
+
+}
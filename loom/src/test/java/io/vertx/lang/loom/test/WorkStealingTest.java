@@ -0,0 +1,64 @@
+package io.vertx.lang.loom.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.AsyncOptions;
+
+public class WorkStealingTest extends AbstactAsyncLoomTest {
+
+  @After
+  public void resetOptions() {
+    Async.configure(new AsyncOptions());
+  }
+
+  @Test
+  public void testSaturatedEventLoopIsStolenFrom() {
+    Async.configure(new AsyncOptions().setWorkStealingThreshold(1));
+    Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2));
+    vertx.deployVerticle(new io.vertx.core.AbstractVerticle() {
+      @Override
+      public void start() {
+        Context owner = context;
+        String ownerThread = Thread.currentThread().getName();
+        CountDownLatch stolen = new CountDownLatch(1);
+        AtomicBoolean released = new AtomicBoolean();
+        // Saturate the event loop, the first task blocks it until the virtual thread made progress elsewhere
+        owner.runOnContext(v -> {
+          try {
+            released.set(stolen.await(5, TimeUnit.SECONDS));
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        });
+        for (int i = 0; i < 10; i++) {
+          owner.runOnContext(v -> {
+          });
+        }
+        Async.async(() -> {
+          Thread.sleep(10);
+          assertNotEquals("The virtual thread should run on another event loop", ownerThread, carrier());
+          stolen.countDown();
+          Async.handBack();
+          assertEquals("The virtual thread should have been handed back to its event loop", ownerThread, carrier());
+          assertTrue("The blocked event loop should have been released by the stolen virtual thread", released.get());
+          return null;
+        }).onComplete(onSuccess(v -> testComplete()));
+      }
+    });
+    waitFor();
+    vertx.close();
+  }
+}
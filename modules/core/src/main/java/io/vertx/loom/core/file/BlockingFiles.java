@@ -0,0 +1,202 @@
+package io.vertx.loom.core.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.lang.loom.Async;
+import io.vertx.loom.core.http.HttpServerResponse;
+
+/**
+ * Blocking file operations for virtual threads. Unlike the {@link FileSystem} API, which runs each operation on the worker pool of Vert.x, these operations
+ * use a {@link FileChannel} on the calling virtual thread and avoid copies between heap buffers:
+ *
+ * <pre>
+ * router.get("/assets/:name").handler(rc -&gt; {
+ *   BlockingFiles.sendFile(rc.response(), "assets/" + rc.pathParam("name"));
+ * });
+ * </pre>
+ *
+ * File I/O can not be unmounted from the carrier thread, the JDK compensates for it by temporarily adding a carrier thread. The operations must therefore
+ * only be called from a virtual thread, so that they never block an event loop.
+ */
+public final class BlockingFiles {
+
+  private BlockingFiles() {
+  }
+
+  /**
+   * Read a region of the file into a pooled direct buffer, without an intermediate heap copy. The buffer has to be closed once its content is no longer
+   * used, e.g. after the write of it to a response has been awaited.
+   *
+   * @param path
+   * @param position
+   *          the position in the file to read from
+   * @param length
+   *          the maximum number of bytes to read
+   * @return the buffer, shorter than the length when the end of the file has been reached
+   */
+  public static PooledBuffer read(String path, long position, int length) {
+    checkVirtualThread();
+    if (position < 0 || length < 0) {
+      throw new IllegalArgumentException("position and length must be >= 0");
+    }
+    ByteBuf buf = PooledByteBufAllocator.DEFAULT.directBuffer(length);
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      long offset = position;
+      while (buf.isWritable()) {
+        int read = buf.writeBytes(channel, offset, buf.writableBytes());
+        if (read < 0) {
+          break;
+        }
+        offset += read;
+      }
+      return new PooledBuffer(buf);
+    } catch (IOException e) {
+      buf.release();
+      throw new UncheckedIOException(e);
+    } catch (RuntimeException e) {
+      buf.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Map the file read-only into memory. The pages are loaded by the OS on access and shared between all mappings of the file, which suits large static
+   * assets that are served often. The mapping is released when the buffer is garbage collected.
+   *
+   * @param path
+   * @return the buffer backed by the mapping
+   */
+  public static Buffer map(String path) {
+    checkVirtualThread();
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return Buffer.buffer(Unpooled.wrappedBuffer(mapped));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Write the buffer to the file, replacing its content. The buffer is written with a gathering write of its NIO buffers, so e.g. the body of an upload is
+   * not copied again.
+   *
+   * @param path
+   * @param data
+   */
+  public static void write(String path, Buffer data) {
+    checkVirtualThread();
+    try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer[] buffers = data.getByteBuf().nioBuffers();
+      long remaining = data.length();
+      while (remaining > 0) {
+        remaining -= channel.write(buffers);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Copy the file with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}, which lets the OS copy the data without passing it
+   * through user space where supported.
+   *
+   * @param from
+   * @param to
+   *          the target file, it is replaced when it exists
+   * @return the number of copied bytes
+   */
+  public static long copy(String from, String to) {
+    checkVirtualThread();
+    try (FileChannel source = FileChannel.open(Paths.get(from), StandardOpenOption.READ);
+      FileChannel target = FileChannel.open(Paths.get(to), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      long size = source.size();
+      long position = 0;
+      while (position < size) {
+        position += source.transferTo(position, size - position, target);
+      }
+      return size;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Send the whole file as the response, see {@link #sendFile(HttpServerResponse, String, long, long)}.
+   */
+  public static void sendFile(HttpServerResponse response, String path) {
+    sendFile(response, path, 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * Send a region of the file as the response and park the virtual thread until it has been sent. The file is checked on the virtual thread, the transfer is
+   * done by the event loop with a zero-copy file region where the transport supports it.
+   *
+   * @param response
+   * @param path
+   * @param offset
+   * @param length
+   *          the maximum number of bytes to send
+   */
+  public static void sendFile(HttpServerResponse response, String path, long offset, long length) {
+    checkVirtualThread();
+    Path file = Paths.get(path);
+    long size;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      size = channel.size();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (offset < 0 || offset > size) {
+      throw new IllegalArgumentException("offset " + offset + " is outside of the file of " + size + " bytes");
+    }
+    Async.await(response.getDelegate().sendFile(file.toAbsolutePath().toString(), offset, Math.min(length, size - offset)));
+  }
+
+  private static void checkVirtualThread() {
+    if (!Thread.currentThread().isVirtual()) {
+      // Fail fast, blocking file I/O would block the event loop
+      throw new IllegalStateException("Blocking file operations must be called from a virtual thread but were called on " + Thread.currentThread().getName());
+    }
+  }
+
+  /**
+   * A buffer which holds pooled memory. Closing it returns the memory to the pool, the buffer must not be used afterwards.
+   */
+  public static final class PooledBuffer implements AutoCloseable {
+
+    private final ByteBuf buf;
+    private final Buffer buffer;
+
+    private PooledBuffer(ByteBuf buf) {
+      this.buf = buf;
+      this.buffer = Buffer.buffer(buf);
+    }
+
+    public Buffer buffer() {
+      return buffer;
+    }
+
+    public int length() {
+      return buf.readableBytes();
+    }
+
+    @Override
+    public void close() {
+      if (buf.refCnt() > 0) {
+        buf.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,264 @@
+package io.vertx.loom.kafka.client.consumer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.impl.ContextInternal;
+import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import io.vertx.lang.loom.Async;
+import io.vertx.lang.loom.keyed.KeyedExecutor;
+
+/**
+ * Blocking consumer loop over a Vert.x {@link KafkaConsumer}. The loop runs on a virtual thread, {@link #poll()} parks it until the next batch of records
+ * arrived. The records of a batch are processed per partition on parallel virtual threads, the records of one partition are processed in offset order:
+ *
+ * <pre>
+ * KafkaConsumerLoop&lt;String, String&gt; loop = new KafkaConsumerLoop&lt;&gt;(KafkaConsumer.create(vertx.getDelegate(), config));
+ * loop.subscribe("orders");
+ * loop.run(record -&gt; {
+ *   Async.await(repository.save(record.key(), record.value()));
+ * });
+ * </pre>
+ *
+ * The loop polls the next batch while the previous one is still processed. A partition whose pending records exceed
+ * {@link KafkaConsumerLoopOptions#getMaxPendingRecords()} is paused and resumed once half of them have been processed, so a slow partition does not hold up
+ * the others and the buffered records stay bounded.
+ * <p>
+ * The offsets of the processed records are committed in batches, see {@link KafkaConsumerLoopOptions#getCommitBatchSize()} and
+ * {@link KafkaConsumerLoopOptions#getCommitInterval()}, and when the loop stops. When the handler fails, the partition is seeked back to the failed record, it
+ * is delivered again with the next poll. Records are processed at least once. When partitions are revoked, the commit of their processed offsets is sent
+ * without awaiting it. Records whose offsets are not committed before the new owner of the partition fetches them, and records which are still in flight,
+ * are processed again by the new owner.
+ * <p>
+ * The loop installs the partitions revoked handler of the consumer and has to be the only user of its poll API.
+ *
+ * @param <K>
+ * @param <V>
+ */
+public class KafkaConsumerLoop<K, V> {
+
+  /**
+   * Blocking handler of a record. It runs on a virtual thread and may await.
+   */
+  @FunctionalInterface
+  public interface RecordHandler<K, V> {
+
+    void handle(ConsumerRecord<K, V> record) throws Exception;
+  }
+
+  private final KafkaConsumer<K, V> consumer;
+  private final KafkaConsumerLoopOptions options;
+  private final KeyedExecutor<TopicPartition> executor = new KeyedExecutor<>();
+  private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+  private final AtomicLong processedSinceCommit = new AtomicLong();
+  private volatile boolean stopped;
+  private long lastCommit = System.currentTimeMillis();
+
+  public KafkaConsumerLoop(KafkaConsumer<K, V> consumer) {
+    this(consumer, new KafkaConsumerLoopOptions());
+  }
+
+  public KafkaConsumerLoop(KafkaConsumer<K, V> consumer, KafkaConsumerLoopOptions options) {
+    this.consumer = Objects.requireNonNull(consumer, "consumer must not be null");
+    this.options = new KafkaConsumerLoopOptions(Objects.requireNonNull(options, "options must not be null"));
+    consumer.partitionsRevokedHandler(this::revoked);
+  }
+
+  /**
+   * Subscribe to the topics, parking the virtual thread until the subscription is done.
+   *
+   * @param topics
+   * @return fluent API
+   */
+  public KafkaConsumerLoop<K, V> subscribe(String... topics) {
+    Async.await(consumer.subscribe(Set.of(topics)));
+    return this;
+  }
+
+  /**
+   * Poll the next batch of records, parking the virtual thread for up to {@link KafkaConsumerLoopOptions#getPollTimeout()}.
+   *
+   * @return the records, empty when none arrived in time
+   */
+  public ConsumerRecords<K, V> poll() {
+    return Async.await(consumer.poll(Duration.ofMillis(options.getPollTimeout()))).records();
+  }
+
+  /**
+   * Poll and process records until {@link #stop()} is called. The records which are in flight when the loop stops are processed and committed before this
+   * method returns.
+   *
+   * @param handler
+   */
+  public void run(RecordHandler<K, V> handler) {
+    Objects.requireNonNull(handler, "handler must not be null");
+    try {
+      while (!stopped) {
+        dispatch(poll(), handler);
+        if (commitDue()) {
+          commit();
+        }
+      }
+    } finally {
+      for (PartitionState state : new ArrayList<>(partitions.values())) {
+        Future<Void> last = state.last;
+        if (last != null) {
+          // Failures have been handled by the partition already
+          Async.await(last.otherwiseEmpty());
+        }
+      }
+      commit();
+    }
+  }
+
+  /**
+   * Process the records of the batch on one virtual thread per partition. The records of a partition are processed after the records of the partition which
+   * have been dispatched before.
+   *
+   * @param records
+   * @param handler
+   */
+  public void dispatch(ConsumerRecords<K, V> records, RecordHandler<K, V> handler) {
+    Context context = Async.currentVertxContext();
+    for (TopicPartition tp : records.partitions()) {
+      List<ConsumerRecord<K, V>> batch = records.records(tp);
+      PartitionState state = partitions.computeIfAbsent(tp, PartitionState::new);
+      if (state.pending.addAndGet(batch.size()) >= options.getMaxPendingRecords() && state.paused.compareAndSet(false, true)) {
+        consumer.pause(toVertx(tp));
+      }
+      state.last = executor.<Void>submit(tp, () -> {
+        process(state, batch, handler);
+        return null;
+      }).onFailure(err -> {
+        if (context != null) {
+          ((ContextInternal) context).reportException(err);
+        }
+      });
+    }
+  }
+
+  /**
+   * Commit the offsets of the records which have been processed, parking the virtual thread until the commit is done.
+   */
+  public void commit() {
+    Map<io.vertx.kafka.client.common.TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    Map<PartitionState, Long> committing = new HashMap<>();
+    for (PartitionState state : partitions.values()) {
+      long next = state.next;
+      if (next > state.committed) {
+        offsets.put(toVertx(state.tp), new OffsetAndMetadata(next, ""));
+        committing.put(state, next);
+      }
+    }
+    lastCommit = System.currentTimeMillis();
+    processedSinceCommit.set(0);
+    if (offsets.isEmpty()) {
+      return;
+    }
+    Async.await(consumer.commit(offsets));
+    committing.forEach((state, next) -> state.committed = next);
+  }
+
+  /**
+   * Stop the loop after the current poll.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  private boolean commitDue() {
+    return processedSinceCommit.get() >= options.getCommitBatchSize() || System.currentTimeMillis() - lastCommit >= options.getCommitInterval();
+  }
+
+  private void process(PartitionState state, List<ConsumerRecord<K, V>> batch, RecordHandler<K, V> handler) throws Exception {
+    try {
+      for (ConsumerRecord<K, V> record : batch) {
+        if (state.revoked || record.offset() < state.next) {
+          // Revoked or already processed
+          continue;
+        }
+        if (state.failedAt >= 0) {
+          if (record.offset() != state.failedAt) {
+            // Polled before the seek took effect, the record is delivered again after the failed one
+            continue;
+          }
+          state.failedAt = -1;
+        }
+        try {
+          handler.handle(record);
+        } catch (Exception e) {
+          state.failedAt = record.offset();
+          consumer.seek(toVertx(state.tp), record.offset());
+          throw e;
+        }
+        state.next = record.offset() + 1;
+        processedSinceCommit.incrementAndGet();
+      }
+    } finally {
+      int pending = state.pending.addAndGet(-batch.size());
+      if (pending <= options.getMaxPendingRecords() / 2 && state.paused.compareAndSet(true, false)) {
+        consumer.resume(toVertx(state.tp));
+      }
+    }
+  }
+
+  /**
+   * Commit the processed offsets of the revoked partitions. The handler runs on the event loop once the consumer already gave up the partitions, it can not
+   * park and awaiting the commit would not hold up the rebalance. The commit is therefore best effort, the new owner processes the records again when it
+   * fails or arrives too late.
+   *
+   * @param revoked
+   */
+  private void revoked(Set<io.vertx.kafka.client.common.TopicPartition> revoked) {
+    Map<io.vertx.kafka.client.common.TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    for (io.vertx.kafka.client.common.TopicPartition tp : revoked) {
+      PartitionState state = partitions.remove(new TopicPartition(tp.getTopic(), tp.getPartition()));
+      if (state != null) {
+        state.revoked = true;
+        if (state.next > state.committed) {
+          offsets.put(tp, new OffsetAndMetadata(state.next, ""));
+        }
+      }
+    }
+    if (!offsets.isEmpty()) {
+      consumer.commit(offsets);
+    }
+  }
+
+  private static io.vertx.kafka.client.common.TopicPartition toVertx(TopicPartition tp) {
+    return new io.vertx.kafka.client.common.TopicPartition(tp.topic(), tp.partition());
+  }
+
+  private static class PartitionState {
+
+    private final TopicPartition tp;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean paused = new AtomicBoolean();
+    // Offset of the next record to process, -1 until the first record has been processed
+    private volatile long next = -1;
+    private volatile long committed = -1;
+    private volatile long failedAt = -1;
+    private volatile boolean revoked;
+    private volatile Future<Void> last;
+
+    PartitionState(TopicPartition tp) {
+      this.tp = tp;
+    }
+  }
+}
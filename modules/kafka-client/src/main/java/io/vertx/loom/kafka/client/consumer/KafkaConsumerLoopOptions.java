@@ -0,0 +1,115 @@
+package io.vertx.loom.kafka.client.consumer;
+
+/**
+ * Options of the {@link KafkaConsumerLoop}.
+ */
+public class KafkaConsumerLoopOptions {
+
+  /**
+   * Default time in milliseconds a poll waits for records = 1000.
+   */
+  public static final long DEFAULT_POLL_TIMEOUT = 1000;
+
+  /**
+   * Default time in milliseconds after which the processed offsets are committed = 5000.
+   */
+  public static final long DEFAULT_COMMIT_INTERVAL = 5000;
+
+  /**
+   * Default number of processed records after which the offsets are committed = 1000.
+   */
+  public static final int DEFAULT_COMMIT_BATCH_SIZE = 1000;
+
+  /**
+   * Default number of polled but not yet processed records of a partition at which the partition is paused = 1000.
+   */
+  public static final int DEFAULT_MAX_PENDING_RECORDS = 1000;
+
+  private long pollTimeout = DEFAULT_POLL_TIMEOUT;
+  private long commitInterval = DEFAULT_COMMIT_INTERVAL;
+  private int commitBatchSize = DEFAULT_COMMIT_BATCH_SIZE;
+  private int maxPendingRecords = DEFAULT_MAX_PENDING_RECORDS;
+
+  public KafkaConsumerLoopOptions() {
+  }
+
+  public KafkaConsumerLoopOptions(KafkaConsumerLoopOptions other) {
+    this.pollTimeout = other.pollTimeout;
+    this.commitInterval = other.commitInterval;
+    this.commitBatchSize = other.commitBatchSize;
+    this.maxPendingRecords = other.maxPendingRecords;
+  }
+
+  public long getPollTimeout() {
+    return pollTimeout;
+  }
+
+  /**
+   * Set the time in milliseconds a poll waits for records.
+   *
+   * @param pollTimeout
+   * @return fluent API
+   */
+  public KafkaConsumerLoopOptions setPollTimeout(long pollTimeout) {
+    if (pollTimeout < 0) {
+      throw new IllegalArgumentException("pollTimeout must be >= 0");
+    }
+    this.pollTimeout = pollTimeout;
+    return this;
+  }
+
+  public long getCommitInterval() {
+    return commitInterval;
+  }
+
+  /**
+   * Set the time in milliseconds after which the processed offsets are committed, at the latest.
+   *
+   * @param commitInterval
+   * @return fluent API
+   */
+  public KafkaConsumerLoopOptions setCommitInterval(long commitInterval) {
+    if (commitInterval < 0) {
+      throw new IllegalArgumentException("commitInterval must be >= 0");
+    }
+    this.commitInterval = commitInterval;
+    return this;
+  }
+
+  public int getCommitBatchSize() {
+    return commitBatchSize;
+  }
+
+  /**
+   * Set the number of processed records after which the offsets are committed, at the latest.
+   *
+   * @param commitBatchSize
+   * @return fluent API
+   */
+  public KafkaConsumerLoopOptions setCommitBatchSize(int commitBatchSize) {
+    if (commitBatchSize < 1) {
+      throw new IllegalArgumentException("commitBatchSize must be > 0");
+    }
+    this.commitBatchSize = commitBatchSize;
+    return this;
+  }
+
+  public int getMaxPendingRecords() {
+    return maxPendingRecords;
+  }
+
+  /**
+   * Set the number of polled but not yet processed records of a partition at which the partition is paused. The partition is resumed once half of them have
+   * been processed.
+   *
+   * @param maxPendingRecords
+   * @return fluent API
+   */
+  public KafkaConsumerLoopOptions setMaxPendingRecords(int maxPendingRecords) {
+    if (maxPendingRecords < 1) {
+      throw new IllegalArgumentException("maxPendingRecords must be > 0");
+    }
+    this.maxPendingRecords = maxPendingRecords;
+    return this;
+  }
+}